@@ -2,6 +2,7 @@ package com.example.opp;
 
 import com.example.opp.config.AppConfig;
 import com.example.opp.database.DatabaseManager;
+import com.example.opp.service.BookingService;
 import com.example.opp.util.Constants;
 import com.example.opp.view.ViewManager;
 import javafx.application.Application;
@@ -26,7 +27,18 @@ public class MainApp extends Application {
                 alert.setContentText(e.getMessage());
                 alert.showAndWait();
             });
+            return;
         }
+
+        BookingService bookingService = new BookingService();
+        try {
+            bookingService.loadAvailabilityIndex();
+        } catch (Exception e) {
+            // Index akan dimuat ulang saat dialog booking pertama kali dibuka
+            System.err.println("Failed to load availability index: " + e.getMessage());
+        }
+        bookingService.trackRemoteChanges();
+        DatabaseManager.getInstance().startChangeListener();
     }
 
     @Override
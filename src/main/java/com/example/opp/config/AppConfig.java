@@ -40,4 +40,9 @@ public final class AppConfig {
         String value = get(key);
         return value != null ? Integer.parseInt(value) : defaultValue;
     }
+
+    public static boolean getBoolean(String key, boolean defaultValue) {
+        String value = get(key);
+        return value != null ? Boolean.parseBoolean(value.trim()) : defaultValue;
+    }
 }
@@ -7,25 +7,60 @@ public record DatabaseConfig(
     String username,
     String password,
     int poolSize,
-    int timeout
+    int minIdle,
+    int timeout,
+    long idleTimeout,
+    long maxLifetime,
+    long keepaliveInterval,
+    long leakDetectionThreshold,
+    int statementCacheSize,
+    boolean serverPrepare,
+    boolean listenEnabled,
+    int listenPort,
+    int fetchSize
 ) {
     public static DatabaseConfig fromProperties() {
+        int poolSize = AppConfig.getInt("db.pool.size", 10);
         return new DatabaseConfig(
             AppConfig.get("db.host", "localhost"),
             AppConfig.getInt("db.port", 5432),
             AppConfig.get("db.name", "postgres"),
             AppConfig.get("db.username", "postgres"),
             AppConfig.get("db.password", ""),
-            AppConfig.getInt("db.pool.size", 10),
-            AppConfig.getInt("db.pool.timeout", 30000)
+            poolSize,
+            Math.min(AppConfig.getInt("db.pool.min-idle", 1), poolSize),
+            AppConfig.getInt("db.pool.timeout", 30000),
+            AppConfig.getInt("db.pool.idle-timeout", 600000),
+            AppConfig.getInt("db.pool.max-lifetime", 1800000),
+            AppConfig.getInt("db.pool.keepalive-interval", 60000),
+            AppConfig.getInt("db.pool.leak-detection-threshold", 0),
+            AppConfig.getInt("db.pool.statement-cache-size", 64),
+            AppConfig.getBoolean("db.server-prepare", false),
+            AppConfig.getBoolean("db.listen.enabled", true),
+            AppConfig.getInt("db.listen.port", 5432),
+            AppConfig.getInt("db.fetch-size", 500)
         );
     }
 
     public String getJdbcUrl() {
-        // Supabase PostgreSQL connection string
+        // Supabase PostgreSQL connection string.
+        // Transaction pooler (port 6543) tidak mendukung named prepared statement,
+        // jadi server-side prepare hanya diaktifkan lewat db.server-prepare=true.
+        // reWriteBatchedInserts menggabungkan batch INSERT menjadi INSERT multi-baris
         return String.format(
-            "jdbc:postgresql://%s:%d/%s?sslmode=require&prepareThreshold=0",
-            host, port, database
+            "jdbc:postgresql://%s:%d/%s?sslmode=require&prepareThreshold=%d&reWriteBatchedInserts=true",
+            host, port, database, serverPrepare ? 1 : 0
+        );
+    }
+
+    /**
+     * URL koneksi LISTEN. Transaction pooler melepas koneksi server setelah tiap transaksi
+     * sehingga LISTEN tidak bertahan; pakai koneksi langsung atau session pooler (port 5432)
+     */
+    public String getListenJdbcUrl() {
+        return String.format(
+            "jdbc:postgresql://%s:%d/%s?sslmode=require&tcpKeepAlive=true",
+            host, listenPort, database
         );
     }
 }
@@ -1,25 +1,33 @@
 package com.example.opp.controller;
 
+import com.example.opp.database.DatabaseManager;
 import com.example.opp.model.Booking;
+import com.example.opp.model.BookingFilter;
 import com.example.opp.model.BookingStatus;
 import com.example.opp.service.BookingService;
+import com.example.opp.service.DataLoader;
+import com.example.opp.service.KeysetWindow;
 import com.example.opp.util.DialogUtil;
+import com.example.opp.view.NewBookingDialog;
+import com.example.opp.view.RefreshableView;
+import javafx.animation.PauseTransition;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
-import javafx.collections.transformation.FilteredList;
 import javafx.fxml.FXML;
-import javafx.geometry.Insets;
 import javafx.geometry.Pos;
+import javafx.scene.Node;
 import javafx.scene.control.*;
-import javafx.scene.layout.GridPane;
+import javafx.scene.control.skin.VirtualFlow;
 import javafx.scene.layout.HBox;
+import javafx.util.Duration;
 
-import java.sql.SQLException;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
 
-public class BookingsController {
+public class BookingsController implements RefreshableView {
 
     @FXML private TableView<Booking> bookingsTable;
     @FXML private TableColumn<Booking, String> numberCol;
@@ -35,31 +43,56 @@ public class BookingsController {
     @FXML private TextField searchField;
     @FXML private ComboBox<String> statusFilter;
 
+    private static final int PAGE_SIZE = 50;
+    private static final int MAX_ROWS = 200;
+    private static final String ALL_STATUS = "Semua Status";
+
     private final BookingService bookingService = new BookingService();
-    private ObservableList<Booking> bookingsList = FXCollections.observableArrayList();
-    private FilteredList<Booking> filteredList;
+    private final ObservableList<Booking> bookingsList = FXCollections.observableArrayList();
+    private final KeysetWindow<Booking> window = new KeysetWindow<>(bookingsList, PAGE_SIZE, MAX_ROWS);
+    private final PauseTransition searchDebounce = new PauseTransition(Duration.millis(300));
+    private DataLoader.Subscription pageLoad;
+    private BookingFilter filter = new BookingFilter(BookingFilter.ACTIVE, "");
     private static final DateTimeFormatter DATE_FMT = DateTimeFormatter.ofPattern("dd MMM yyyy");
 
     @FXML
     public void initialize() {
         setupFilters();
         setupTable();
+        bookingsTable.setItems(bookingsList);
+        bookingsTable.skinProperty().addListener((obs, old, skin) -> watchScroll());
         loadBookings();
     }
 
+    @Override
+    public Set<String> watchedTables() {
+        return Set.of("bookings", "guests", "rooms");
+    }
+
+    @Override
+    public void refresh() {
+        reloadWindow();
+    }
+
     private void setupFilters() {
         statusFilter.setItems(FXCollections.observableArrayList(
-            "Semua Status", "Menunggu", "Dikonfirmasi", "Checked In", "Checked Out", "Dibatalkan"
+            ALL_STATUS, "Menunggu", "Dikonfirmasi", "Checked In", "Checked Out", "Dibatalkan"
         ));
-        statusFilter.setValue("Semua Status");
+        statusFilter.setValue(ALL_STATUS);
         statusFilter.setOnAction(e -> applyFilters());
-        searchField.textProperty().addListener((obs, old, val) -> applyFilters());
+        searchDebounce.setOnFinished(e -> applyFilters());
+        searchField.textProperty().addListener((obs, old, val) -> searchDebounce.playFromStart());
     }
 
     private void setupTable() {
-        numberCol.setCellValueFactory(c -> new SimpleStringProperty(
-            String.valueOf(bookingsTable.getItems().indexOf(c.getValue()) + 1)
-        ));
+        // Nomor urut absolut: baris yang sudah dibuang dari atas jendela ikut dihitung
+        numberCol.setCellFactory(col -> new TableCell<>() {
+            @Override
+            protected void updateItem(String item, boolean empty) {
+                super.updateItem(item, empty);
+                setText(empty ? null : String.valueOf(window.offset() + getIndex() + 1));
+            }
+        });
         codeCol.setCellValueFactory(c -> new SimpleStringProperty(c.getValue().getBookingCode()));
         guestCol.setCellValueFactory(c -> {
             var guest = c.getValue().getGuest();
@@ -111,246 +144,192 @@ public class BookingsController {
             // PENDING: Konfirmasi atau Batal
             Button confirm = new Button("Konfirmasi");
             confirm.getStyleClass().add("btn-primary-sm");
-            confirm.setOnAction(e -> handleConfirm(booking));
+            confirm.setOnAction(e -> handleConfirm(booking, box));
 
             Button cancel = new Button("Batal");
             cancel.getStyleClass().add("btn-danger-sm");
-            cancel.setOnAction(e -> handleCancel(booking));
+            cancel.setOnAction(e -> handleCancel(booking, box));
 
             box.getChildren().addAll(confirm, cancel);
         } else if (status == BookingStatus.CONFIRMED) {
             // CONFIRMED: Check In atau Batal
             Button checkIn = new Button("Check In");
             checkIn.getStyleClass().add("btn-success-sm");
-            checkIn.setOnAction(e -> handleCheckIn(booking));
+            checkIn.setOnAction(e -> handleCheckIn(booking, box));
 
             Button cancel = new Button("Batal");
             cancel.getStyleClass().add("btn-danger-sm");
-            cancel.setOnAction(e -> handleCancel(booking));
+            cancel.setOnAction(e -> handleCancel(booking, box));
 
             box.getChildren().addAll(checkIn, cancel);
         } else if (status == BookingStatus.CHECKED_IN) {
             // CHECKED_IN: Check Out
             Button checkOut = new Button("Check Out");
             checkOut.getStyleClass().add("btn-warning-sm");
-            checkOut.setOnAction(e -> handleCheckOut(booking));
+            checkOut.setOnAction(e -> handleCheckOut(booking, box));
             box.getChildren().add(checkOut);
         }
         return box;
     }
 
+    /**
+     * Muat halaman pertama untuk filter aktif; load halaman yang masih berjalan dibatalkan
+     */
     private void loadBookings() {
-        try {
-            List<Booking> bookings = bookingService.getActiveBookings();
-            bookingsList.setAll(bookings);
-            filteredList = new FilteredList<>(bookingsList, p -> true);
-            bookingsTable.setItems(filteredList);
-        } catch (SQLException e) {
-            DialogUtil.error("Gagal memuat data booking: " + e.getMessage());
+        cancelPageLoad();
+        DataLoader.loading(bookingsTable, "Memuat data booking...");
+        loadPage(null, true, window.fetchSize(), page -> {
+            window.reset(page);
+            bookingsTable.scrollTo(0);
+        });
+    }
+
+    /**
+     * Muat ulang baris yang sedang tampil tanpa memindahkan posisi scroll, dipakai setelah
+     * booking diubah atau ada perubahan dari client lain
+     */
+    private void reloadWindow() {
+        cancelPageLoad();
+        loadPage(window.above(), true, window.reloadSize(), window::reload);
+    }
+
+    private void loadOlder() {
+        if (pageLoad != null || !window.hasOlder()) return;
+        loadPage(window.last(), true, window.fetchSize(), page -> {
+            int top = firstVisibleIndex();
+            int dropped = window.appendOlder(page);
+            if (dropped > 0) {
+                bookingsTable.scrollTo(Math.max(0, top - dropped));
+            }
+        });
+    }
+
+    private void loadNewer() {
+        if (pageLoad != null || !window.hasNewer()) return;
+        loadPage(window.first(), false, window.fetchSize(), page -> {
+            int top = firstVisibleIndex();
+            int added = window.prependNewer(page);
+            bookingsTable.scrollTo(top + added);
+        });
+    }
+
+    private void loadPage(Booking anchor, boolean older, int limit, Consumer<List<Booking>> apply) {
+        BookingFilter current = filter;
+        String key = "bookings.page." + current + "." + (anchor != null ? anchor.getId() : "top")
+            + "." + older + "." + limit;
+        pageLoad = DataLoader.getInstance().load(this, key,
+            () -> bookingService.getBookingPage(current, anchor, older, limit),
+            page -> {
+                pageLoad = null;
+                DataLoader.loaded(bookingsTable);
+                apply.accept(page);
+            },
+            e -> {
+                pageLoad = null;
+                DataLoader.loaded(bookingsTable);
+                DialogUtil.error("Gagal memuat data booking: " + e.getMessage());
+            });
+    }
+
+    private void cancelPageLoad() {
+        if (pageLoad != null) {
+            pageLoad.cancel();
+            pageLoad = null;
         }
     }
 
+    /**
+     * Minta halaman berikutnya saat baris yang terlihat mendekati ujung jendela
+     */
+    private void watchScroll() {
+        VirtualFlow<?> flow = (VirtualFlow<?>) bookingsTable.lookup(".virtual-flow");
+        if (flow == null) return;
+        flow.positionProperty().addListener((obs, old, pos) -> {
+            IndexedCell<?> firstCell = flow.getFirstVisibleCell();
+            IndexedCell<?> lastCell = flow.getLastVisibleCell();
+            if (firstCell == null || lastCell == null) return;
+            int margin = window.pageSize() / 2;
+            if (lastCell.getIndex() >= bookingsList.size() - margin) {
+                loadOlder();
+            } else if (firstCell.getIndex() < margin) {
+                loadNewer();
+            }
+        });
+    }
+
+    private int firstVisibleIndex() {
+        VirtualFlow<?> flow = (VirtualFlow<?>) bookingsTable.lookup(".virtual-flow");
+        IndexedCell<?> cell = flow != null ? flow.getFirstVisibleCell() : null;
+        return cell != null ? cell.getIndex() : 0;
+    }
+
     private void applyFilters() {
-        if (filteredList == null) return;
-        String search = searchField.getText().toLowerCase();
+        searchDebounce.stop();
         String status = statusFilter.getValue();
-
-        filteredList.setPredicate(booking -> {
-            boolean matchSearch = search.isEmpty() ||
-                booking.getBookingCode().toLowerCase().contains(search) ||
-                (booking.getGuest() != null && booking.getGuest().getFullName().toLowerCase().contains(search));
-            boolean matchStatus = "Semua Status".equals(status) ||
-                formatStatus(booking.getStatus()).equalsIgnoreCase(status);
-            return matchSearch && matchStatus;
-        });
+        Set<BookingStatus> statuses = status == null || ALL_STATUS.equals(status)
+            ? BookingFilter.ACTIVE
+            : Set.of(parseStatus(status));
+        BookingFilter next = new BookingFilter(statuses, searchField.getText());
+        if (next.equals(filter)) return;
+        filter = next;
+        loadBookings();
     }
 
-    private void handleConfirm(Booking booking) {
+    private void handleConfirm(Booking booking, Node actions) {
         if (DialogUtil.konfirmasi("Konfirmasi Booking", 
                 "Apakah Anda yakin ingin mengkonfirmasi booking ini?\n\n" +
                 "Kode Booking: " + booking.getBookingCode())) {
-            try {
-                if (bookingService.confirmBooking(booking.getId())) {
-                    loadBookings();
-                    DialogUtil.sukses("Booking " + booking.getBookingCode() + " berhasil dikonfirmasi");
-                }
-            } catch (SQLException e) {
-                DialogUtil.error("Konfirmasi gagal: " + e.getMessage());
-            }
+            runAction(actions, () -> bookingService.confirmBooking(booking.getId()),
+                "Booking " + booking.getBookingCode() + " berhasil dikonfirmasi", "Konfirmasi gagal");
         }
     }
 
-    private void handleCheckIn(Booking booking) {
+    private void handleCheckIn(Booking booking, Node actions) {
         String kamar = booking.getRoom() != null ? booking.getRoom().getRoomNumber() : "-";
         if (DialogUtil.konfirmasiCheckIn(booking.getBookingCode(), kamar)) {
-            try {
-                if (bookingService.checkIn(booking.getId())) {
-                    loadBookings();
-                    DialogUtil.sukses("Check-in berhasil untuk booking " + booking.getBookingCode());
-                }
-            } catch (SQLException e) {
-                DialogUtil.error("Check-in gagal: " + e.getMessage());
-            }
+            runAction(actions, () -> bookingService.checkIn(booking.getId()),
+                "Check-in berhasil untuk booking " + booking.getBookingCode(), "Check-in gagal");
         }
     }
 
-    private void handleCheckOut(Booking booking) {
+    private void handleCheckOut(Booking booking, Node actions) {
         String kamar = booking.getRoom() != null ? booking.getRoom().getRoomNumber() : "-";
         if (DialogUtil.konfirmasiCheckOut(booking.getBookingCode(), kamar)) {
-            try {
-                if (bookingService.checkOut(booking.getId())) {
-                    loadBookings();
-                    DialogUtil.sukses("Check-out berhasil untuk booking " + booking.getBookingCode());
-                }
-            } catch (SQLException e) {
-                DialogUtil.error("Check-out gagal: " + e.getMessage());
-            }
+            runAction(actions, () -> bookingService.checkOut(booking.getId()),
+                "Check-out berhasil untuk booking " + booking.getBookingCode(), "Check-out gagal");
         }
     }
 
-    private void handleCancel(Booking booking) {
+    private void handleCancel(Booking booking, Node actions) {
         if (DialogUtil.konfirmasiBatalBooking(booking.getBookingCode())) {
-            try {
-                if (bookingService.cancelBooking(booking.getId())) {
-                    loadBookings();
-                    DialogUtil.sukses("Booking " + booking.getBookingCode() + " berhasil dibatalkan");
-                }
-            } catch (SQLException e) {
-                DialogUtil.error("Pembatalan gagal: " + e.getMessage());
-            }
+            runAction(actions, () -> bookingService.cancelBooking(booking.getId()),
+                "Booking " + booking.getBookingCode() + " berhasil dibatalkan", "Pembatalan gagal");
         }
     }
 
-    @FXML
-    private void handleNewBooking() {
-        Dialog<Booking> dialog = new Dialog<>();
-        dialog.setTitle("Booking Baru");
-        dialog.setHeaderText(null);
-
-        ButtonType saveBtn = new ButtonType("Simpan Booking", ButtonBar.ButtonData.OK_DONE);
-        ButtonType cancelBtn = new ButtonType("Batal", ButtonBar.ButtonData.CANCEL_CLOSE);
-        dialog.getDialogPane().getButtonTypes().addAll(saveBtn, cancelBtn);
-
-        GridPane grid = new GridPane();
-        grid.setHgap(12);
-        grid.setVgap(12);
-        grid.setPadding(new Insets(20));
-
-        // Guest selection
-        ComboBox<com.example.opp.model.Guest> guestCombo = new ComboBox<>();
-        com.example.opp.service.GuestService guestService = new com.example.opp.service.GuestService();
-        try {
-            guestCombo.setItems(FXCollections.observableArrayList(guestService.getAllGuests()));
-            guestCombo.setConverter(new javafx.util.StringConverter<>() {
-                @Override
-                public String toString(com.example.opp.model.Guest g) {
-                    return g != null ? g.getFullName() + " (" + g.getIdNumber() + ")" : "";
-                }
-                @Override
-                public com.example.opp.model.Guest fromString(String s) { return null; }
-            });
-        } catch (SQLException e) {
-            DialogUtil.error("Gagal memuat data tamu");
-        }
-
-        // Room selection
-        ComboBox<com.example.opp.model.Room> roomCombo = new ComboBox<>();
-        com.example.opp.service.RoomService roomService = new com.example.opp.service.RoomService();
-        try {
-            roomCombo.setItems(FXCollections.observableArrayList(roomService.getAvailableRooms()));
-            roomCombo.setConverter(new javafx.util.StringConverter<>() {
-                @Override
-                public String toString(com.example.opp.model.Room r) {
-                    if (r == null) return "";
-                    String type = r.getRoomType() != null ? r.getRoomType().getName() : "Standard";
-                    String price = r.getRoomType() != null ? r.getRoomType().getFormattedPrice() : "-";
-                    return r.getRoomNumber() + " - " + type + " (" + price + "/malam)";
+    /**
+     * Jalankan aksi booking di background (termasuk retry transaksinya); tombol aksi baris
+     * dinonaktifkan selama berjalan, hasilnya diterapkan di FX thread
+     */
+    private void runAction(Node actions, DatabaseManager.SqlSupplier<Boolean> work, String success, String failure) {
+        actions.setDisable(true);
+        DataLoader.getInstance().submit(work,
+            done -> {
+                actions.setDisable(false);
+                if (done) {
+                    reloadWindow();
+                    DialogUtil.sukses(success);
                 }
-                @Override
-                public com.example.opp.model.Room fromString(String s) { return null; }
+            },
+            e -> {
+                actions.setDisable(false);
+                DialogUtil.error(failure + ": " + e.getMessage());
             });
-        } catch (SQLException e) {
-            DialogUtil.error("Gagal memuat data kamar");
-        }
-
-        DatePicker checkIn = new DatePicker(java.time.LocalDate.now());
-        DatePicker checkOut = new DatePicker(java.time.LocalDate.now().plusDays(1));
-
-        Label totalLabel = new Label("Rp 0");
-        totalLabel.setStyle("-fx-font-weight: bold; -fx-font-size: 16px; -fx-text-fill: #0194F3;");
-
-        Runnable calculateTotal = () -> {
-            com.example.opp.model.Room room = roomCombo.getValue();
-            java.time.LocalDate in = checkIn.getValue();
-            java.time.LocalDate out = checkOut.getValue();
-            if (room != null && room.getRoomType() != null && in != null && out != null && out.isAfter(in)) {
-                long nights = java.time.temporal.ChronoUnit.DAYS.between(in, out);
-                java.math.BigDecimal total = room.getRoomType().getBasePrice().multiply(java.math.BigDecimal.valueOf(nights));
-                totalLabel.setText(String.format("Rp %,.0f (%d malam)", total, nights));
-            }
-        };
-
-        roomCombo.setOnAction(e -> calculateTotal.run());
-        checkIn.setOnAction(e -> calculateTotal.run());
-        checkOut.setOnAction(e -> calculateTotal.run());
-
-        TextArea notes = new TextArea();
-        notes.setPromptText("Catatan atau permintaan khusus...");
-        notes.setPrefRowCount(2);
-
-        grid.add(new Label("Tamu:"), 0, 0);
-        grid.add(guestCombo, 1, 0);
-        grid.add(new Label("Kamar:"), 0, 1);
-        grid.add(roomCombo, 1, 1);
-        grid.add(new Label("Tanggal Check-in:"), 0, 2);
-        grid.add(checkIn, 1, 2);
-        grid.add(new Label("Tanggal Check-out:"), 0, 3);
-        grid.add(checkOut, 1, 3);
-        grid.add(new Label("Total Biaya:"), 0, 4);
-        grid.add(totalLabel, 1, 4);
-        grid.add(new Label("Catatan:"), 0, 5);
-        grid.add(notes, 1, 5);
-
-        dialog.getDialogPane().setContent(grid);
-        dialog.getDialogPane().setPrefWidth(450);
-
-        dialog.setResultConverter(btn -> {
-            if (btn == saveBtn) {
-                if (guestCombo.getValue() == null || roomCombo.getValue() == null) {
-                    DialogUtil.peringatan("Silakan pilih tamu dan kamar");
-                    return null;
-                }
-                if (checkOut.getValue() == null || !checkOut.getValue().isAfter(checkIn.getValue())) {
-                    DialogUtil.peringatan("Tanggal check-out harus setelah tanggal check-in");
-                    return null;
-                }
-                Booking b = new Booking();
-                b.setGuestId(guestCombo.getValue().getId());
-                b.setRoomId(roomCombo.getValue().getId());
-                b.setCheckInDate(checkIn.getValue());
-                b.setCheckOutDate(checkOut.getValue());
-                b.setNotes(notes.getText());
-                return b;
-            }
-            return null;
-        });
+    }
 
-        dialog.showAndWait().ifPresent(booking -> {
-            if (DialogUtil.konfirmasiSimpan("booking baru")) {
-                try {
-                    Long userId = com.example.opp.service.SessionManager.getInstance().getCurrentUserId();
-                    if (userId == null) userId = 1L;
-                    bookingService.createBooking(booking.getGuestId(), booking.getRoomId(),
-                        booking.getCheckInDate(), booking.getCheckOutDate(), userId);
-                    loadBookings();
-                    DialogUtil.sukses("Booking berhasil dibuat!");
-                } catch (SQLException e) {
-                    DialogUtil.error("Gagal membuat booking: " + e.getMessage());
-                } catch (IllegalStateException e) {
-                    DialogUtil.error(e.getMessage());
-                }
-            }
-        });
+    @FXML
+    private void handleNewBooking() {
+        new NewBookingDialog(bookingService, booking -> reloadWindow()).show();
     }
 
     private String formatStatus(BookingStatus status) {
@@ -363,6 +342,13 @@ public class BookingsController {
         };
     }
 
+    private BookingStatus parseStatus(String label) {
+        for (BookingStatus status : BookingStatus.values()) {
+            if (formatStatus(status).equals(label)) return status;
+        }
+        throw new IllegalArgumentException("Unknown status label: " + label);
+    }
+
     private String getStatusBadgeClass(String status) {
         return switch (status.toLowerCase()) {
             case "menunggu" -> "badge-gray";
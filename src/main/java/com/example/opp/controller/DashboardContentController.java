@@ -1,32 +1,32 @@
 package com.example.opp.controller;
 
 import com.example.opp.model.Booking;
-import com.example.opp.model.Guest;
-import com.example.opp.model.Room;
+import com.example.opp.model.DashboardSnapshot;
+import com.example.opp.model.RoomStatus;
+import com.example.opp.model.RoomStatusSummary;
 import com.example.opp.service.BookingService;
-import com.example.opp.service.GuestService;
-import com.example.opp.service.RoomService;
-import com.example.opp.service.SessionManager;
+import com.example.opp.service.DashboardService;
+import com.example.opp.service.DataLoader;
 import com.example.opp.util.DialogUtil;
-import javafx.collections.FXCollections;
+import com.example.opp.view.NewBookingDialog;
+import com.example.opp.view.RefreshableView;
 import javafx.fxml.FXML;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.control.*;
 import javafx.scene.layout.*;
 
-import java.math.BigDecimal;
-import java.sql.SQLException;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
-import java.time.temporal.ChronoUnit;
 import java.util.List;
 import java.util.Locale;
+import java.util.Set;
 
-public class DashboardContentController {
+public class DashboardContentController implements RefreshableView {
 
     @FXML private Label dateLabel;
     @FXML private Label availableCount;
+    @FXML private Label availableForecast;
     @FXML private Label occupiedCount;
     @FXML private Label reservedCount;
     @FXML private Label maintenanceCount;
@@ -35,59 +35,100 @@ public class DashboardContentController {
     @FXML private VBox checkInList;
     @FXML private VBox checkOutList;
 
-    private final RoomService roomService = new RoomService();
     private final BookingService bookingService = new BookingService();
+    private final DashboardService dashboardService = new DashboardService();
 
     @FXML
     public void initialize() {
         DateTimeFormatter fmt = DateTimeFormatter.ofPattern("EEEE, d MMMM yyyy", new Locale("id", "ID"));
         dateLabel.setText(LocalDate.now().format(fmt));
-        loadStats();
-        loadTodayActivity();
+        loadDashboard();
     }
 
-    private void loadStats() {
-        try {
-            availableCount.setText(String.valueOf(roomService.getAvailableCount()));
-            occupiedCount.setText(String.valueOf(roomService.getOccupiedCount()));
-            reservedCount.setText(String.valueOf(roomService.getReservedCount()));
-            maintenanceCount.setText(String.valueOf(roomService.getMaintenanceCount()));
-        } catch (SQLException e) {
-            DialogUtil.error("Gagal memuat statistik: " + e.getMessage());
-        }
+    @Override
+    public Set<String> watchedTables() {
+        return Set.of("bookings", "rooms");
     }
 
-    private void loadTodayActivity() {
-        try {
-            List<Booking> checkIns = bookingService.getTodayCheckIns();
-            List<Booking> checkOuts = bookingService.getTodayCheckOuts();
-
-            checkInCountLabel.setText(String.valueOf(checkIns.size()));
-            checkOutCountLabel.setText(String.valueOf(checkOuts.size()));
+    @Override
+    public void refresh() {
+        loadDashboard();
+    }
 
-            checkInList.getChildren().clear();
-            checkOutList.getChildren().clear();
+    private void loadDashboard() {
+        if (checkInList.getChildren().isEmpty()) {
+            checkInList.getChildren().setAll(DataLoader.placeholder("Memuat check-in..."));
+        }
+        if (checkOutList.getChildren().isEmpty()) {
+            checkOutList.getChildren().setAll(DataLoader.placeholder("Memuat check-out..."));
+        }
+        DataLoader.getInstance().loadAsync(this, "dashboard.snapshot", dashboardService::loadSnapshot,
+            this::applySnapshot,
+            e -> {
+                checkInList.getChildren().clear();
+                checkOutList.getChildren().clear();
+                DialogUtil.error("Gagal memuat dashboard: " + e.getMessage());
+            });
+    }
 
-            if (checkIns.isEmpty()) {
-                checkInList.getChildren().add(createEmptyState("Tidak ada check-in hari ini"));
-            } else {
-                for (Booking b : checkIns) {
-                    checkInList.getChildren().add(createBookingCard(b, true));
-                }
+    /**
+     * Seluruh dashboard diperbarui sekaligus dari satu snapshot, dipanggil di FX thread
+     */
+    private void applySnapshot(DashboardSnapshot snapshot) {
+        RoomStatusSummary summary = snapshot.rooms();
+        availableCount.setText(String.valueOf(summary.count(RoomStatus.AVAILABLE)));
+        occupiedCount.setText(String.valueOf(summary.count(RoomStatus.OCCUPIED)));
+        reservedCount.setText(String.valueOf(summary.count(RoomStatus.RESERVED)));
+        maintenanceCount.setText(String.valueOf(summary.count(RoomStatus.MAINTENANCE)));
+        showForecast(snapshot.date(), snapshot.freeRoomsPerNight());
+
+        List<Booking> checkIns = snapshot.checkIns();
+        List<Booking> checkOuts = snapshot.checkOuts();
+
+        checkInCountLabel.setText(String.valueOf(checkIns.size()));
+        checkOutCountLabel.setText(String.valueOf(checkOuts.size()));
+
+        checkInList.getChildren().clear();
+        checkOutList.getChildren().clear();
+
+        if (checkIns.isEmpty()) {
+            checkInList.getChildren().add(createEmptyState("Tidak ada check-in hari ini"));
+        } else {
+            for (Booking b : checkIns) {
+                checkInList.getChildren().add(createBookingCard(b, true));
             }
+        }
 
-            if (checkOuts.isEmpty()) {
-                checkOutList.getChildren().add(createEmptyState("Tidak ada check-out hari ini"));
-            } else {
-                for (Booking b : checkOuts) {
-                    checkOutList.getChildren().add(createBookingCard(b, false));
-                }
+        if (checkOuts.isEmpty()) {
+            checkOutList.getChildren().add(createEmptyState("Tidak ada check-out hari ini"));
+        } else {
+            for (Booking b : checkOuts) {
+                checkOutList.getChildren().add(createBookingCard(b, false));
             }
-        } catch (SQLException e) {
-            DialogUtil.error("Gagal memuat aktivitas: " + e.getMessage());
         }
     }
 
+    /**
+     * Kamar bebas paling sedikit dalam beberapa malam ke depan; rincian per malam di tooltip
+     */
+    private void showForecast(LocalDate from, int[] freePerNight) {
+        if (freePerNight.length == 0) {
+            availableForecast.setText("");
+            availableForecast.setTooltip(null);
+            return;
+        }
+        DateTimeFormatter fmt = DateTimeFormatter.ofPattern("EEE d MMM", new Locale("id", "ID"));
+        int min = Integer.MAX_VALUE;
+        StringBuilder detail = new StringBuilder();
+        for (int night = 0; night < freePerNight.length; night++) {
+            min = Math.min(min, freePerNight[night]);
+            if (night > 0) detail.append('\n');
+            detail.append(from.plusDays(night).format(fmt)).append(": ").append(freePerNight[night]).append(" bebas");
+        }
+        availableForecast.setText(freePerNight.length + " malam ke depan: min. " + min + " bebas");
+        availableForecast.setTooltip(new Tooltip(detail.toString()));
+    }
+
     private HBox createBookingCard(Booking booking, boolean isCheckIn) {
         HBox card = new HBox(12);
         card.setAlignment(Pos.CENTER_LEFT);
@@ -111,7 +152,7 @@ public class DashboardContentController {
 
         Button actionBtn = new Button(isCheckIn ? "Check In" : "Check Out");
         actionBtn.getStyleClass().add(isCheckIn ? "btn-success-sm" : "btn-warning-sm");
-        actionBtn.setOnAction(e -> handleAction(booking, isCheckIn));
+        actionBtn.setOnAction(e -> handleAction(booking, isCheckIn, actionBtn));
 
         card.getChildren().addAll(info, spacer, actionBtn);
         return card;
@@ -123,146 +164,32 @@ public class DashboardContentController {
         return label;
     }
 
-    private void handleAction(Booking booking, boolean isCheckIn) {
+    private void handleAction(Booking booking, boolean isCheckIn, Button actionBtn) {
         String kamar = booking.getRoom() != null ? booking.getRoom().getRoomNumber() : "-";
         boolean confirmed = isCheckIn 
             ? DialogUtil.konfirmasiCheckIn(booking.getBookingCode(), kamar)
             : DialogUtil.konfirmasiCheckOut(booking.getBookingCode(), kamar);
-
-        if (confirmed) {
-            try {
-                boolean success = isCheckIn 
-                    ? bookingService.checkIn(booking.getId())
-                    : bookingService.checkOut(booking.getId());
+        if (!confirmed) return;
+
+        // Transaksi check-in/check-out (termasuk retry-nya) berjalan di background
+        actionBtn.setDisable(true);
+        DataLoader.getInstance().submit(
+            () -> isCheckIn ? bookingService.checkIn(booking.getId()) : bookingService.checkOut(booking.getId()),
+            success -> {
+                actionBtn.setDisable(false);
                 if (success) {
-                    loadStats();
-                    loadTodayActivity();
-                    String msg = isCheckIn ? "Check-in berhasil!" : "Check-out berhasil!";
-                    DialogUtil.sukses(msg);
+                    loadDashboard();
+                    DialogUtil.sukses(isCheckIn ? "Check-in berhasil!" : "Check-out berhasil!");
                 }
-            } catch (SQLException e) {
+            },
+            e -> {
+                actionBtn.setDisable(false);
                 DialogUtil.error("Operasi gagal: " + e.getMessage());
-            }
-        }
+            });
     }
 
     @FXML
     private void handleNewBooking() {
-        Dialog<Booking> dialog = new Dialog<>();
-        dialog.setTitle("Booking Baru");
-        dialog.setHeaderText(null);
-
-        ButtonType saveBtn = new ButtonType("Simpan Booking", ButtonBar.ButtonData.OK_DONE);
-        ButtonType cancelBtn = new ButtonType("Batal", ButtonBar.ButtonData.CANCEL_CLOSE);
-        dialog.getDialogPane().getButtonTypes().addAll(saveBtn, cancelBtn);
-
-        GridPane grid = new GridPane();
-        grid.setHgap(12);
-        grid.setVgap(12);
-        grid.setPadding(new Insets(20));
-
-        // Guest selection
-        ComboBox<Guest> guestCombo = new ComboBox<>();
-        GuestService guestService = new GuestService();
-        try {
-            guestCombo.setItems(FXCollections.observableArrayList(guestService.getAllGuests()));
-            guestCombo.setConverter(new javafx.util.StringConverter<>() {
-                @Override
-                public String toString(Guest g) {
-                    return g != null ? g.getFullName() + " (" + g.getIdNumber() + ")" : "";
-                }
-                @Override
-                public Guest fromString(String s) { return null; }
-            });
-        } catch (SQLException ignored) {}
-
-        // Room selection
-        ComboBox<Room> roomCombo = new ComboBox<>();
-        try {
-            roomCombo.setItems(FXCollections.observableArrayList(roomService.getAvailableRooms()));
-            roomCombo.setConverter(new javafx.util.StringConverter<>() {
-                @Override
-                public String toString(Room r) {
-                    if (r == null) return "";
-                    String type = r.getRoomType() != null ? r.getRoomType().getName() : "Standard";
-                    String price = r.getRoomType() != null ? r.getRoomType().getFormattedPrice() : "-";
-                    return r.getRoomNumber() + " - " + type + " (" + price + "/malam)";
-                }
-                @Override
-                public Room fromString(String s) { return null; }
-            });
-        } catch (SQLException ignored) {}
-
-        DatePicker checkIn = new DatePicker(LocalDate.now());
-        DatePicker checkOut = new DatePicker(LocalDate.now().plusDays(1));
-
-        Label totalLabel = new Label("Rp 0");
-        totalLabel.setStyle("-fx-font-weight: bold; -fx-font-size: 16px; -fx-text-fill: #0194F3;");
-
-        Runnable calcTotal = () -> {
-            Room room = roomCombo.getValue();
-            LocalDate in = checkIn.getValue();
-            LocalDate out = checkOut.getValue();
-            if (room != null && room.getRoomType() != null && in != null && out != null && out.isAfter(in)) {
-                long nights = ChronoUnit.DAYS.between(in, out);
-                BigDecimal total = room.getRoomType().getBasePrice().multiply(BigDecimal.valueOf(nights));
-                totalLabel.setText(String.format("Rp %,.0f (%d malam)", total, nights));
-            }
-        };
-        roomCombo.setOnAction(e -> calcTotal.run());
-        checkIn.setOnAction(e -> calcTotal.run());
-        checkOut.setOnAction(e -> calcTotal.run());
-
-        grid.add(new Label("Tamu:"), 0, 0);
-        grid.add(guestCombo, 1, 0);
-        grid.add(new Label("Kamar:"), 0, 1);
-        grid.add(roomCombo, 1, 1);
-        grid.add(new Label("Tanggal Check-in:"), 0, 2);
-        grid.add(checkIn, 1, 2);
-        grid.add(new Label("Tanggal Check-out:"), 0, 3);
-        grid.add(checkOut, 1, 3);
-        grid.add(new Label("Total Biaya:"), 0, 4);
-        grid.add(totalLabel, 1, 4);
-
-        dialog.getDialogPane().setContent(grid);
-        dialog.getDialogPane().setPrefWidth(400);
-
-        dialog.setResultConverter(btn -> {
-            if (btn == saveBtn) {
-                if (guestCombo.getValue() == null || roomCombo.getValue() == null) {
-                    DialogUtil.peringatan("Silakan pilih tamu dan kamar");
-                    return null;
-                }
-                if (checkOut.getValue() == null || !checkOut.getValue().isAfter(checkIn.getValue())) {
-                    DialogUtil.peringatan("Tanggal check-out harus setelah check-in");
-                    return null;
-                }
-                Booking b = new Booking();
-                b.setGuestId(guestCombo.getValue().getId());
-                b.setRoomId(roomCombo.getValue().getId());
-                b.setCheckInDate(checkIn.getValue());
-                b.setCheckOutDate(checkOut.getValue());
-                return b;
-            }
-            return null;
-        });
-
-        dialog.showAndWait().ifPresent(booking -> {
-            if (DialogUtil.konfirmasiSimpan("booking baru")) {
-                try {
-                    Long userId = SessionManager.getInstance().getCurrentUserId();
-                    if (userId == null) userId = 1L;
-                    bookingService.createBooking(booking.getGuestId(), booking.getRoomId(),
-                        booking.getCheckInDate(), booking.getCheckOutDate(), userId);
-                    loadStats();
-                    loadTodayActivity();
-                    DialogUtil.sukses("Booking berhasil dibuat!");
-                } catch (SQLException e) {
-                    DialogUtil.error("Gagal membuat booking: " + e.getMessage());
-                } catch (IllegalStateException e) {
-                    DialogUtil.error(e.getMessage());
-                }
-            }
-        });
+        new NewBookingDialog(bookingService, booking -> loadDashboard()).show();
     }
 }
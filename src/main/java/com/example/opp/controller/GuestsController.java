@@ -1,25 +1,30 @@
 package com.example.opp.controller;
 
 import com.example.opp.model.Guest;
+import com.example.opp.service.DataLoader;
 import com.example.opp.service.GuestService;
+import com.example.opp.service.NgramIndex;
 import com.example.opp.service.SessionManager;
 import com.example.opp.util.DialogUtil;
+import com.example.opp.view.RefreshableView;
+import javafx.animation.PauseTransition;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
-import javafx.collections.transformation.FilteredList;
 import javafx.fxml.FXML;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.control.*;
 import javafx.scene.layout.GridPane;
 import javafx.scene.layout.HBox;
+import javafx.util.Duration;
 
 import java.sql.SQLException;
-import java.util.List;
+import java.util.Arrays;
 import java.util.Optional;
+import java.util.Set;
 
-public class GuestsController {
+public class GuestsController implements RefreshableView {
 
     @FXML private TableView<Guest> guestsTable;
     @FXML private TableColumn<Guest, String> numberCol;
@@ -32,8 +37,11 @@ public class GuestsController {
     @FXML private TextField searchField;
 
     private final GuestService guestService = new GuestService();
-    private ObservableList<Guest> guestsList = FXCollections.observableArrayList();
-    private FilteredList<Guest> filteredList;
+    private final ObservableList<Guest> guestsList = FXCollections.observableArrayList();
+    private final NgramIndex<Guest> searchIndex = new NgramIndex<>(Guest::getId,
+        g -> Arrays.asList(g.getFullName(), g.getIdNumber(), g.getPhone()));
+    private final PauseTransition searchDebounce = new PauseTransition(Duration.millis(150));
+    private DataLoader.Subscription fuzzySearch;
 
     private boolean isAdmin() {
         return SessionManager.getInstance().isAdmin();
@@ -42,14 +50,30 @@ public class GuestsController {
     @FXML
     public void initialize() {
         setupTable();
+        guestsTable.setItems(guestsList);
+        loadGuests();
+        searchDebounce.setOnFinished(e -> applyFilter());
+        searchField.textProperty().addListener((obs, old, val) -> searchDebounce.playFromStart());
+    }
+
+    @Override
+    public Set<String> watchedTables() {
+        return Set.of("guests");
+    }
+
+    @Override
+    public void refresh() {
         loadGuests();
-        searchField.textProperty().addListener((obs, old, val) -> applyFilter());
     }
 
     private void setupTable() {
-        numberCol.setCellValueFactory(c -> new SimpleStringProperty(
-            String.valueOf(guestsTable.getItems().indexOf(c.getValue()) + 1)
-        ));
+        numberCol.setCellFactory(col -> new TableCell<>() {
+            @Override
+            protected void updateItem(String item, boolean empty) {
+                super.updateItem(item, empty);
+                setText(empty ? null : String.valueOf(getIndex() + 1));
+            }
+        });
         idNumberCol.setCellValueFactory(c -> new SimpleStringProperty(c.getValue().getIdNumber()));
         idTypeCol.setCellValueFactory(c -> new SimpleStringProperty(formatIdType(c.getValue().getIdType())));
         nameCol.setCellValueFactory(c -> new SimpleStringProperty(c.getValue().getFullName()));
@@ -95,23 +119,51 @@ public class GuestsController {
     }
 
     private void loadGuests() {
-        try {
-            List<Guest> guests = guestService.getAllGuests();
-            guestsList.setAll(guests);
-            filteredList = new FilteredList<>(guestsList, p -> true);
-            guestsTable.setItems(filteredList);
-        } catch (SQLException e) {
-            DialogUtil.error("Gagal memuat data tamu: " + e.getMessage());
-        }
+        DataLoader.loading(guestsTable, "Memuat data tamu...");
+        DataLoader.getInstance().load(this, "guests.all", guestService::getAllGuests,
+            guests -> {
+                DataLoader.loaded(guestsTable);
+                searchIndex.replaceAll(guests);
+                applyFilter();
+            },
+            e -> {
+                DataLoader.loaded(guestsTable);
+                DialogUtil.error("Gagal memuat data tamu: " + e.getMessage());
+            });
     }
 
+    /**
+     * Cari lewat index n-gram (nama, nomor identitas, telepon) tanpa memindai seluruh daftar.
+     * Jika tidak ada yang cocok persis, misalnya karena salah ketik, pencarian trigram
+     * di server dipakai sebagai cadangan.
+     */
     private void applyFilter() {
-        String search = searchField.getText().toLowerCase();
-        filteredList.setPredicate(guest ->
-            search.isEmpty() ||
-            guest.getFullName().toLowerCase().contains(search) ||
-            guest.getIdNumber().toLowerCase().contains(search)
-        );
+        searchDebounce.stop();
+        if (fuzzySearch != null) {
+            fuzzySearch.cancel();
+            fuzzySearch = null;
+            DataLoader.loaded(guestsTable);
+        }
+        String text = searchField.getText();
+        guestsList.setAll(searchIndex.search(text));
+        if (guestsList.isEmpty() && text != null && text.trim().length() >= 3) {
+            searchSimilar(text.trim());
+        }
+    }
+
+    private void searchSimilar(String text) {
+        DataLoader.loading(guestsTable, "Mencari tamu dengan nama mirip...");
+        fuzzySearch = DataLoader.getInstance().load(this, "guests.search." + text,
+            () -> guestService.searchGuests(text),
+            guests -> {
+                fuzzySearch = null;
+                DataLoader.loaded(guestsTable);
+                guestsList.setAll(guests);
+            },
+            e -> {
+                fuzzySearch = null;
+                DataLoader.loaded(guestsTable);
+            });
     }
 
     @FXML
@@ -119,8 +171,9 @@ public class GuestsController {
         showGuestDialog(null).ifPresent(guest -> {
             if (DialogUtil.konfirmasiSimpan("data tamu baru")) {
                 try {
-                    guestService.createGuest(guest);
-                    loadGuests();
+                    guest.setId(guestService.createGuest(guest));
+                    searchIndex.put(guest);
+                    applyFilter();
                     DialogUtil.sukses("Tamu " + guest.getFullName() + " berhasil ditambahkan!");
                 } catch (SQLException e) {
                     DialogUtil.error("Gagal menambah tamu: " + e.getMessage());
@@ -137,7 +190,8 @@ public class GuestsController {
                 try {
                     updated.setId(guest.getId());
                     guestService.updateGuest(updated);
-                    loadGuests();
+                    searchIndex.put(updated);
+                    applyFilter();
                     DialogUtil.sukses("Data tamu berhasil diperbarui!");
                 } catch (SQLException e) {
                     DialogUtil.error("Gagal memperbarui data tamu: " + e.getMessage());
@@ -150,7 +204,8 @@ public class GuestsController {
         if (DialogUtil.konfirmasiHapus("tamu " + guest.getFullName())) {
             try {
                 guestService.deleteGuest(guest.getId());
-                loadGuests();
+                searchIndex.remove(guest.getId());
+                applyFilter();
                 DialogUtil.sukses("Tamu " + guest.getFullName() + " berhasil dihapus!");
             } catch (SQLException e) {
                 DialogUtil.error("Gagal menghapus tamu: " + e.getMessage());
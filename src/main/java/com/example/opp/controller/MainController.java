@@ -1,11 +1,18 @@
 package com.example.opp.controller;
 
+import com.example.opp.database.ChangeEvent;
+import com.example.opp.database.ChangeListener;
+import com.example.opp.database.DatabaseManager;
 import com.example.opp.model.Role;
 import com.example.opp.model.User;
+import com.example.opp.service.DataLoader;
 import com.example.opp.service.NotificationService;
 import com.example.opp.service.SessionManager;
 import com.example.opp.util.Constants;
+import com.example.opp.view.RefreshableView;
 import com.example.opp.view.ViewManager;
+import javafx.animation.PauseTransition;
+import javafx.application.Platform;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Node;
@@ -13,8 +20,12 @@ import javafx.scene.control.Button;
 import javafx.scene.control.Label;
 import javafx.scene.layout.HBox;
 import javafx.scene.layout.StackPane;
+import javafx.util.Duration;
 
 import java.io.IOException;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
 
 public class MainController {
 
@@ -32,6 +43,20 @@ public class MainController {
     @FXML private Label bookingNotification;
 
     private HBox activeNav;
+    private Object currentController;
+    private final Set<String> changedTables = new HashSet<>();
+    private final PauseTransition refreshDelay = new PauseTransition(Duration.millis(300));
+    private final ChangeListener changeListener = new ChangeListener() {
+        @Override
+        public void onChange(ChangeEvent event) {
+            Platform.runLater(() -> scheduleRefresh(event.table()));
+        }
+
+        @Override
+        public void onResync() {
+            Platform.runLater(() -> scheduleRefresh(null));
+        }
+    };
     private final NotificationService notificationService = NotificationService.getInstance();
 
     @FXML
@@ -39,10 +64,32 @@ public class MainController {
         loadUserInfo();
         setupRoleBasedMenu();
         setupNotifications();
+        setupChangeRefresh();
         activeNav = navDashboard;
         showDashboard();
     }
 
+    private void setupChangeRefresh() {
+        // Event perubahan yang berdekatan digabung jadi satu refresh
+        refreshDelay.setOnFinished(e -> {
+            Set<String> tables = new HashSet<>(changedTables);
+            changedTables.clear();
+            if (currentController instanceof RefreshableView view
+                    && (tables.contains(null) || !Collections.disjoint(tables, view.watchedTables()))) {
+                view.refresh();
+            }
+        });
+        DatabaseManager.getInstance().addChangeListener(changeListener);
+    }
+
+    /**
+     * {@code table} null berarti koneksi listener baru tersambung ulang, semua halaman di-refresh
+     */
+    private void scheduleRefresh(String table) {
+        changedTables.add(table);
+        refreshDelay.playFromStart();
+    }
+
     private void setupNotifications() {
         // Bind notification badge to booking count
         notificationService.newWebBookingsCountProperty().addListener((obs, oldVal, newVal) -> {
@@ -150,6 +197,8 @@ public class MainController {
     private void handleLogout() {
         if (com.example.opp.util.DialogUtil.konfirmasiLogout()) {
             SessionManager.getInstance().logout();
+            DatabaseManager.getInstance().removeChangeListener(changeListener);
+            refreshDelay.stop();
             try {
                 ViewManager.switchScene(Constants.LOGIN_VIEW, Constants.APP_TITLE);
             } catch (IOException e) {
@@ -168,8 +217,14 @@ public class MainController {
 
     private void loadContent(String fxmlPath) {
         try {
+            // Load data halaman lama tidak perlu diteruskan ke scene yang sudah dibuang
+            if (currentController != null) {
+                DataLoader.getInstance().cancel(currentController);
+                currentController = null;
+            }
             FXMLLoader loader = new FXMLLoader(getClass().getResource(fxmlPath));
             Node content = loader.load();
+            currentController = loader.getController();
             contentArea.getChildren().setAll(content);
         } catch (IOException e) {
             e.printStackTrace();
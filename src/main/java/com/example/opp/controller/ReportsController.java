@@ -1,8 +1,14 @@
 package com.example.opp.controller;
 
+import com.example.opp.database.DatabaseManager;
+import com.example.opp.database.TransactionIsolation;
 import com.example.opp.model.Booking;
 import com.example.opp.model.BookingStatus;
+import com.example.opp.model.DailyReportRow;
 import com.example.opp.repository.BookingRepository;
+import com.example.opp.repository.ReportRepository;
+import com.example.opp.service.DataLoader;
+import com.example.opp.service.ReportAccumulator;
 import com.example.opp.service.RoomService;
 import com.example.opp.util.DialogUtil;
 import com.example.opp.util.PdfExporter;
@@ -38,10 +44,12 @@ public class ReportsController {
     @FXML private TableColumn<DailyReport, String> checkOutsCol;
     @FXML private TableColumn<DailyReport, String> revenueCol;
 
+    private final DatabaseManager db = DatabaseManager.getInstance();
     private final BookingRepository bookingRepository = new BookingRepository();
+    private final ReportRepository reportRepository = new ReportRepository();
     private final RoomService roomService = new RoomService();
     private static final DateTimeFormatter DATE_FMT = DateTimeFormatter.ofPattern("dd MMM yyyy");
-    private List<Booking> currentBookings = new ArrayList<>();
+    private DataLoader.Subscription currentLoad;
 
     @FXML
     public void initialize() {
@@ -77,124 +85,75 @@ public class ReportsController {
             return;
         }
 
-        try {
-            List<Booking> allBookings = bookingRepository.findAll();
-            
-            // Filter: booking yang check-in atau check-out dalam rentang tanggal
-            currentBookings = allBookings.stream()
-                .filter(b -> {
-                    LocalDate checkIn = b.getCheckInDate();
-                    LocalDate checkOut = b.getCheckOutDate();
-                    // Include jika check-in atau check-out dalam range
-                    return (!checkIn.isBefore(from) && !checkIn.isAfter(to)) ||
-                           (!checkOut.isBefore(from) && !checkOut.isAfter(to)) ||
-                           (checkIn.isBefore(from) && checkOut.isAfter(to));
-                })
-                .toList();
-
-            calculateStats(currentBookings);
-            generateDailyReport(from, to, allBookings);
-
-        } catch (SQLException e) {
-            DialogUtil.error("Gagal memuat data laporan: " + e.getMessage());
+        // Laporan sebelumnya yang belum selesai tidak boleh menimpa rentang yang baru
+        if (currentLoad != null) {
+            currentLoad.cancel();
         }
+        reportTable.setItems(FXCollections.observableArrayList());
+        DataLoader.loading(reportTable, "Memuat data laporan...");
+        currentLoad = DataLoader.getInstance().load(this, "reports." + from + "." + to,
+            () -> loadReport(from, to),
+            report -> {
+                DataLoader.loaded(reportTable);
+                showStats(report.summary());
+                showDailyReport(report.dailyRows(), report.bookings());
+            },
+            e -> {
+                DataLoader.loaded(reportTable);
+                DialogUtil.error("Gagal memuat data laporan: " + e.getMessage());
+            });
     }
 
-    private void calculateStats(List<Booking> bookings) throws SQLException {
-        // Total booking (exclude cancelled)
-        long totalBookingCount = bookings.stream()
-            .filter(b -> b.getStatus() != BookingStatus.CANCELLED)
-            .count();
-        totalBookings.setText(String.valueOf(totalBookingCount));
+    /**
+     * Dijalankan di background thread: query periode, statistik dan baris harian.
+     * Rollup dan booking dibaca dalam satu snapshot, jadi baris harian dan ringkasan selalu
+     * menggambarkan data yang sama walau ada booking yang tersimpan di tengah pembacaan.
+     */
+    private LoadedReport loadReport(LocalDate from, LocalDate to) throws SQLException {
+        return db.inTransaction(TransactionIsolation.REPEATABLE_READ, conn -> {
+            // Agregasi per tanggal dikerjakan di database, terbaru di atas
+            List<DailyReportRow> dailyRows = reportRepository.findDailyRows(from, to);
 
-        // Total pendapatan (CHECKED_IN + CHECKED_OUT = sudah bayar)
-        BigDecimal revenue = bookings.stream()
-            .filter(b -> b.getStatus() == BookingStatus.CHECKED_IN || b.getStatus() == BookingStatus.CHECKED_OUT)
-            .map(Booking::getTotalAmount)
-            .filter(Objects::nonNull)
-            .reduce(BigDecimal.ZERO, BigDecimal::add);
-        totalRevenue.setText(String.format("Rp %,.0f", revenue));
+            // Booking yang menyentuh rentang tanggal dibaca bertahap dalam satu kali jalan: total booking,
+            // pendapatan (CHECKED_IN + CHECKED_OUT = sudah bayar), rata-rata menginap dan malam terisi.
+            // Daftar booking hanya disimpan jika tidak ada baris harian (untuk daftar pengganti)
+            ReportAccumulator accumulator = new ReportAccumulator(from, to);
+            List<Booking> fallback = new ArrayList<>();
+            bookingRepository.forEachInPeriod(from, to, booking -> {
+                accumulator.add(booking);
+                if (dailyRows.isEmpty() && booking.getStatus() != BookingStatus.CANCELLED) {
+                    fallback.add(booking);
+                }
+            });
+            ReportAccumulator.Summary summary = accumulator.summary(roomService.getStatusSummary().total());
 
-        // Rata-rata menginap
-        double avgNights = bookings.stream()
-            .filter(b -> b.getStatus() != BookingStatus.CANCELLED)
-            .mapToInt(Booking::getTotalNights)
-            .average()
-            .orElse(0);
-        avgStay.setText(String.format("%.1f malam", avgNights));
+            return new LoadedReport(fallback, summary, dailyRows);
+        });
+    }
 
-        // Tingkat hunian
-        int totalRooms = roomService.getTotalRoomCount();
-        long occupiedDays = bookings.stream()
-            .filter(b -> b.getStatus() == BookingStatus.CHECKED_IN || b.getStatus() == BookingStatus.CHECKED_OUT)
-            .mapToInt(Booking::getTotalNights)
-            .sum();
-        
-        long daysBetween = java.time.temporal.ChronoUnit.DAYS.between(fromDate.getValue(), toDate.getValue()) + 1;
-        double occupancy = totalRooms > 0 && daysBetween > 0 
-            ? (double) occupiedDays / (totalRooms * daysBetween) * 100 
-            : 0;
-        occupancyRate.setText(String.format("%.1f%%", Math.min(occupancy, 100)));
+    private void showStats(ReportAccumulator.Summary summary) {
+        totalBookings.setText(String.valueOf(summary.bookings()));
+        totalRevenue.setText(String.format("Rp %,.0f", summary.paidRevenue()));
+        avgStay.setText(String.format("%.1f malam", summary.averageNights()));
+        occupancyRate.setText(String.format("%.1f%%", summary.occupancyRate()));
     }
 
-    private void generateDailyReport(LocalDate from, LocalDate to, List<Booking> allBookings) {
+    private void showDailyReport(List<DailyReportRow> rows, List<Booking> periodBookings) {
         ObservableList<DailyReport> reports = FXCollections.observableArrayList();
-        
-        // Kumpulkan semua tanggal unik dari check-in dan check-out dalam range
-        Set<LocalDate> relevantDates = new TreeSet<>();
-        
-        for (Booking b : allBookings) {
-            LocalDate checkIn = b.getCheckInDate();
-            LocalDate checkOut = b.getCheckOutDate();
-            
-            // Tambahkan check-in date jika dalam range
-            if (!checkIn.isBefore(from) && !checkIn.isAfter(to)) {
-                relevantDates.add(checkIn);
-            }
-            // Tambahkan check-out date jika dalam range
-            if (!checkOut.isBefore(from) && !checkOut.isAfter(to)) {
-                relevantDates.add(checkOut);
-            }
-        }
-        
-        // Generate report untuk setiap tanggal yang relevan
-        for (LocalDate date : relevantDates) {
-            // Booking dengan check-in pada tanggal ini
-            long checkInsOnDate = allBookings.stream()
-                .filter(b -> b.getCheckInDate().equals(date))
-                .filter(b -> b.getStatus() != BookingStatus.CANCELLED)
-                .count();
-            
-            // Booking dengan check-out pada tanggal ini
-            long checkOutsOnDate = allBookings.stream()
-                .filter(b -> b.getCheckOutDate().equals(date))
-                .filter(b -> b.getStatus() != BookingStatus.CANCELLED)
-                .count();
-            
-            // Pendapatan: dari booking yang check-in pada tanggal ini
-            BigDecimal revenueOnDate = allBookings.stream()
-                .filter(b -> b.getCheckInDate().equals(date))
-                .filter(b -> b.getStatus() != BookingStatus.CANCELLED)
-                .map(Booking::getTotalAmount)
-                .filter(Objects::nonNull)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-            
+        for (DailyReportRow row : rows) {
             reports.add(new DailyReport(
-                date.format(DATE_FMT),
-                (int) checkInsOnDate, // Jumlah booking = check-in
-                (int) checkInsOnDate,
-                (int) checkOutsOnDate,
-                String.format("Rp %,.0f", revenueOnDate)
+                row.date().format(DATE_FMT),
+                row.bookings(), // Jumlah booking = check-in
+                row.checkIns(),
+                row.checkOuts(),
+                String.format("Rp %,.0f", row.revenue())
             ));
         }
-        
-        // Sort descending (terbaru di atas)
-        reports.sort((a, b) -> b.date().compareTo(a.date()));
         reportTable.setItems(reports);
-        
-        // Jika masih kosong, tampilkan semua booking sebagai list
+
+        // Jika masih kosong, tampilkan booking dalam periode sebagai list
         if (reports.isEmpty()) {
-            generateBookingListReport(allBookings);
+            generateBookingListReport(periodBookings);
         }
     }
 
@@ -317,5 +276,8 @@ public class ReportsController {
     }
 
     // Record untuk data tabel
+    private record LoadedReport(List<Booking> bookings, ReportAccumulator.Summary summary,
+                                List<DailyReportRow> dailyRows) {}
+
     public record DailyReport(String date, int bookings, int checkIns, int checkOuts, String revenue) {}
 }
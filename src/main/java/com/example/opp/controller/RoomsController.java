@@ -3,25 +3,27 @@ package com.example.opp.controller;
 import com.example.opp.model.Room;
 import com.example.opp.model.RoomStatus;
 import com.example.opp.model.RoomType;
+import com.example.opp.service.DataLoader;
 import com.example.opp.service.RoomService;
 import com.example.opp.service.SessionManager;
 import com.example.opp.util.DialogUtil;
+import com.example.opp.view.RefreshableView;
+import com.example.opp.view.RoomCard;
+import com.example.opp.view.RoomTileView;
 import javafx.collections.FXCollections;
 import javafx.fxml.FXML;
 import javafx.geometry.Insets;
-import javafx.geometry.Pos;
 import javafx.scene.control.*;
-import javafx.scene.image.Image;
-import javafx.scene.image.ImageView;
 import javafx.scene.layout.*;
 
 import java.sql.SQLException;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 
-public class RoomsController {
+public class RoomsController implements RefreshableView {
 
-    @FXML private FlowPane roomGrid;
+    @FXML private RoomTileView roomGrid;
     @FXML private ComboBox<String> filterCombo;
     @FXML private ComboBox<String> floorCombo;
     @FXML private Button addRoomBtn;
@@ -33,6 +35,17 @@ public class RoomsController {
     public void initialize() {
         setupFilters();
         setupRoleBasedAccess();
+        roomGrid.setOnOpen(this::showRoomDetails);
+        loadRooms();
+    }
+
+    @Override
+    public Set<String> watchedTables() {
+        return Set.of("rooms", "room_types");
+    }
+
+    @Override
+    public void refresh() {
         loadRooms();
     }
 
@@ -62,12 +75,18 @@ public class RoomsController {
     }
 
     private void loadRooms() {
-        try {
-            allRooms = roomService.getAllRooms();
-            applyFilters();
-        } catch (SQLException e) {
-            DialogUtil.error("Gagal memuat data kamar: " + e.getMessage());
+        if (allRooms == null) {
+            roomGrid.setPlaceholder(DataLoader.placeholder("Memuat data kamar..."));
         }
+        DataLoader.getInstance().load(this, "rooms.all", roomService::getAllRooms,
+            rooms -> {
+                allRooms = rooms;
+                applyFilters();
+            },
+            e -> {
+                roomGrid.setPlaceholder(emptyState());
+                DialogUtil.error("Gagal memuat data kamar: " + e.getMessage());
+            });
     }
 
     private void applyFilters() {
@@ -77,7 +96,7 @@ public class RoomsController {
         String floorFilter = floorCombo.getValue();
 
         List<Room> filtered = allRooms.stream()
-            .filter(r -> "Semua Status".equals(statusFilter) || formatStatus(r.getStatus()).equals(statusFilter))
+            .filter(r -> "Semua Status".equals(statusFilter) || RoomCard.formatStatus(r.getStatus()).equals(statusFilter))
             .filter(r -> "Semua Lantai".equals(floorFilter) || ("Lantai " + r.getFloor()).equals(floorFilter))
             .collect(Collectors.toList());
 
@@ -85,94 +104,14 @@ public class RoomsController {
     }
 
     private void renderRooms(List<Room> rooms) {
-        roomGrid.getChildren().clear();
-        for (Room room : rooms) {
-            roomGrid.getChildren().add(createRoomCard(room));
-        }
-        if (rooms.isEmpty()) {
-            Label empty = new Label("Tidak ada kamar ditemukan");
-            empty.getStyleClass().add("empty-state");
-            roomGrid.getChildren().add(empty);
-        }
-    }
-
-    private VBox createRoomCard(Room room) {
-        VBox card = new VBox(8);
-        card.getStyleClass().addAll("room-card", getStatusClass(room.getStatus()));
-        card.setPadding(new Insets(0));
-        card.setPrefWidth(200);
-        card.setAlignment(Pos.TOP_LEFT);
-
-        // Room image
-        ImageView imageView = new ImageView();
-        imageView.setFitWidth(200);
-        imageView.setFitHeight(120);
-        imageView.setPreserveRatio(false);
-        imageView.setStyle("-fx-background-radius: 12 12 0 0;");
-        
-        String imageUrl = room.getRoomType() != null ? room.getRoomType().getImageUrl() : null;
-        if (imageUrl != null && !imageUrl.isEmpty()) {
-            try {
-                Image img = new Image(imageUrl, 200, 120, false, true, true);
-                imageView.setImage(img);
-            } catch (Exception e) {
-                // Use placeholder if image fails
-                imageView.setStyle("-fx-background-color: #E0E0E0;");
-            }
-        } else {
-            imageView.setStyle("-fx-background-color: #E0E0E0;");
-        }
-
-        // Content area
-        VBox content = new VBox(6);
-        content.setPadding(new Insets(12));
-
-        Label roomNum = new Label(room.getRoomNumber());
-        roomNum.getStyleClass().add("room-number");
-
-        String typeName = room.getRoomType() != null ? room.getRoomType().getName() : "Standard";
-        Label typeLabel = new Label(typeName);
-        typeLabel.getStyleClass().add("room-type");
-
-        Label floorLabel = new Label("Lantai " + room.getFloor());
-        floorLabel.getStyleClass().add("room-floor");
-
-        HBox statusBox = new HBox(6);
-        statusBox.setAlignment(Pos.CENTER_LEFT);
-        Region dot = new Region();
-        dot.getStyleClass().addAll("status-dot", "dot-" + room.getStatus().name().toLowerCase());
-        dot.setPrefSize(8, 8);
-        Label statusLabel = new Label(formatStatus(room.getStatus()));
-        statusLabel.getStyleClass().add("room-status-text");
-        statusBox.getChildren().addAll(dot, statusLabel);
-
-        String price = room.getRoomType() != null ? room.getRoomType().getFormattedPrice() : "-";
-        Label priceLabel = new Label(price + "/malam");
-        priceLabel.getStyleClass().add("room-price");
-
-        content.getChildren().addAll(roomNum, typeLabel, floorLabel, statusBox, priceLabel);
-        card.getChildren().addAll(imageView, content);
-        card.setOnMouseClicked(e -> showRoomDetails(room));
-
-        return card;
-    }
-
-    private String getStatusClass(RoomStatus status) {
-        return switch (status) {
-            case AVAILABLE -> "room-available";
-            case OCCUPIED -> "room-occupied";
-            case RESERVED -> "room-reserved";
-            case MAINTENANCE -> "room-maintenance";
-        };
+        roomGrid.setPlaceholder(emptyState());
+        roomGrid.setRooms(rooms);
     }
 
-    private String formatStatus(RoomStatus status) {
-        return switch (status) {
-            case AVAILABLE -> "Tersedia";
-            case OCCUPIED -> "Terisi";
-            case RESERVED -> "Dipesan";
-            case MAINTENANCE -> "Perbaikan";
-        };
+    private static Label emptyState() {
+        Label empty = new Label("Tidak ada kamar ditemukan");
+        empty.getStyleClass().add("empty-state");
+        return empty;
     }
 
     private void showRoomDetails(Room room) {
@@ -188,7 +127,7 @@ public class RoomsController {
             createDetailRow("Nomor Kamar", room.getRoomNumber()),
             createDetailRow("Tipe", room.getRoomType() != null ? room.getRoomType().getName() : "-"),
             createDetailRow("Lantai", String.valueOf(room.getFloor())),
-            createDetailRow("Status", formatStatus(room.getStatus())),
+            createDetailRow("Status", RoomCard.formatStatus(room.getStatus())),
             createDetailRow("Harga", room.getRoomType() != null ? room.getRoomType().getFormattedPrice() + "/malam" : "-")
         );
 
@@ -235,7 +174,7 @@ public class RoomsController {
         }
 
         ChoiceDialog<String> dialog = new ChoiceDialog<>(
-            formatStatus(room.getStatus()),
+            RoomCard.formatStatus(room.getStatus()),
             "Tersedia", "Dipesan", "Perbaikan"
         );
         dialog.setTitle("Ubah Status Kamar");
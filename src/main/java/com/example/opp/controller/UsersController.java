@@ -3,6 +3,7 @@ package com.example.opp.controller;
 import com.example.opp.model.Role;
 import com.example.opp.model.User;
 import com.example.opp.repository.UserRepository;
+import com.example.opp.service.DataLoader;
 import com.example.opp.service.SessionManager;
 import com.example.opp.util.DialogUtil;
 import javafx.beans.property.SimpleStringProperty;
@@ -17,7 +18,6 @@ import javafx.scene.layout.GridPane;
 import javafx.scene.layout.HBox;
 
 import java.sql.SQLException;
-import java.util.List;
 
 public class UsersController {
 
@@ -112,14 +112,18 @@ public class UsersController {
     }
 
     private void loadUsers() {
-        try {
-            List<User> users = userRepository.findAll();
-            usersList.setAll(users);
-            filteredList = new FilteredList<>(usersList, p -> true);
-            usersTable.setItems(filteredList);
-        } catch (SQLException e) {
-            DialogUtil.error("Gagal memuat data pengguna: " + e.getMessage());
-        }
+        DataLoader.loading(usersTable, "Memuat data pengguna...");
+        DataLoader.getInstance().load(this, "users.all", userRepository::findAll,
+            users -> {
+                DataLoader.loaded(usersTable);
+                usersList.setAll(users);
+                filteredList = new FilteredList<>(usersList, p -> true);
+                usersTable.setItems(filteredList);
+            },
+            e -> {
+                DataLoader.loaded(usersTable);
+                DialogUtil.error("Gagal memuat data pengguna: " + e.getMessage());
+            });
     }
 
     private void setupSearch() {
@@ -0,0 +1,22 @@
+package com.example.opp.database;
+
+/**
+ * Perubahan satu baris yang dikirim trigger notify_change() lewat channel {@value ChangeNotifier#CHANNEL}.
+ * Payload-nya ringkas: {@code tabel:OPERASI:id}, misalnya {@code bookings:UPDATE:42}
+ */
+public record ChangeEvent(String table, Operation operation, long id) {
+
+    public enum Operation { INSERT, UPDATE, DELETE }
+
+    public static ChangeEvent parse(String payload) {
+        String[] parts = payload.split(":", 3);
+        if (parts.length != 3) {
+            throw new IllegalArgumentException("Invalid change payload: " + payload);
+        }
+        return new ChangeEvent(parts[0], Operation.valueOf(parts[1]), Long.parseLong(parts[2]));
+    }
+
+    public boolean isFor(String tableName) {
+        return table.equals(tableName);
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.opp.database;
+
+/**
+ * Penerima event perubahan dari {@link DatabaseManager#addChangeListener}.
+ * Dipanggil di thread listener, jadi pekerjaan berat atau update UI harus dipindah ke thread lain.
+ */
+@FunctionalInterface
+public interface ChangeListener {
+
+    void onChange(ChangeEvent event);
+
+    /**
+     * Koneksi LISTEN tersambung ulang; event selama terputus mungkin hilang,
+     * jadi semua data yang di-cache harus dianggap basi
+     */
+    default void onResync() {}
+}
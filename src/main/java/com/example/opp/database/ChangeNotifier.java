@@ -0,0 +1,152 @@
+package com.example.opp.database;
+
+import com.example.opp.config.DatabaseConfig;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Satu koneksi khusus (di luar pool) yang LISTEN ke channel perubahan tabel dan meneruskan
+ * setiap notifikasi ke listener terdaftar. Jika koneksi putus, disambung ulang dengan backoff
+ * lalu listener diberi tahu lewat {@link ChangeListener#onResync()}.
+ */
+final class ChangeNotifier {
+
+    static final String CHANNEL = "table_changes";
+
+    private static final int POLL_MILLIS = 10_000;
+    private static final long MAX_BACKOFF_MILLIS = 60_000;
+
+    private final DatabaseConfig config;
+    private final List<ChangeListener> listeners = new CopyOnWriteArrayList<>();
+    private volatile boolean running;
+    private volatile boolean listening;
+    private volatile Connection connection;
+    private Thread thread;
+
+    ChangeNotifier(DatabaseConfig config) {
+        this.config = config;
+    }
+
+    synchronized void start() {
+        if (running) return;
+        running = true;
+        thread = new Thread(this::run, "ChangeNotifier");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    synchronized void stop() {
+        running = false;
+        closeQuietly(connection);
+        if (thread != null) {
+            thread.interrupt();
+            thread = null;
+        }
+    }
+
+    boolean isListening() {
+        return listening;
+    }
+
+    void addListener(ChangeListener listener) {
+        listeners.add(listener);
+    }
+
+    void removeListener(ChangeListener listener) {
+        listeners.remove(listener);
+    }
+
+    private void run() {
+        int failures = 0;
+        boolean connectedBefore = false;
+        while (running) {
+            try (Connection conn = DriverManager.getConnection(
+                    config.getListenJdbcUrl(), config.username(), config.password())) {
+                connection = conn;
+                try (Statement stmt = conn.createStatement()) {
+                    stmt.execute("LISTEN " + CHANNEL);
+                }
+                listening = true;
+                failures = 0;
+                if (connectedBefore) {
+                    resync();
+                }
+                connectedBefore = true;
+
+                PGConnection pg = conn.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pg.getNotifications(POLL_MILLIS);
+                    if (notifications == null) continue;
+                    for (PGNotification notification : notifications) {
+                        dispatch(notification.getParameter());
+                    }
+                }
+            } catch (SQLException e) {
+                if (!running) break;
+                System.err.println("Change listener disconnected: " + e.getMessage());
+            } finally {
+                listening = false;
+                connection = null;
+            }
+
+            if (running && !sleep(backoff(++failures))) break;
+        }
+    }
+
+    private void dispatch(String payload) {
+        ChangeEvent event;
+        try {
+            event = ChangeEvent.parse(payload);
+        } catch (IllegalArgumentException e) {
+            System.err.println("Ignoring change notification: " + e.getMessage());
+            return;
+        }
+        for (ChangeListener listener : listeners) {
+            try {
+                listener.onChange(event);
+            } catch (RuntimeException e) {
+                System.err.println("Change listener failed: " + e.getMessage());
+            }
+        }
+    }
+
+    private void resync() {
+        for (ChangeListener listener : listeners) {
+            try {
+                listener.onResync();
+            } catch (RuntimeException e) {
+                System.err.println("Change listener resync failed: " + e.getMessage());
+            }
+        }
+    }
+
+    private static long backoff(int failures) {
+        long delay = Math.min(MAX_BACKOFF_MILLIS, 500L << Math.min(failures, 7));
+        return delay + ThreadLocalRandom.current().nextLong(250);
+    }
+
+    private static boolean sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static void closeQuietly(Connection conn) {
+        if (conn == null) return;
+        try {
+            conn.close();
+        } catch (SQLException ignored) {}
+    }
+}
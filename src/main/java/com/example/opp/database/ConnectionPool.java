@@ -4,68 +4,328 @@ import com.example.opp.config.DatabaseConfig;
 
 import java.sql.Connection;
 import java.sql.DriverManager;
+import java.sql.PreparedStatement;
 import java.sql.SQLException;
-import java.util.concurrent.ArrayBlockingQueue;
-import java.util.concurrent.BlockingQueue;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
 
+/**
+ * Connection pool dengan ukuran elastis (min-idle s/d pool size).
+ * Borrow hanya mengambil dari deque di memori; validasi keep-alive,
+ * eviksi idle dan rotasi max-lifetime dikerjakan thread housekeeper.
+ */
 public class ConnectionPool {
 
-    private final BlockingQueue<Connection> pool;
+    private static final int MAX_LEAK_REPORTS = 20;
+
     private final DatabaseConfig config;
-    private boolean initialized = false;
+    private final ConcurrentLinkedDeque<PooledConnection> idle = new ConcurrentLinkedDeque<>();
+    private final Map<Connection, PooledConnection> inUse = new ConcurrentHashMap<>();
+    private final AtomicInteger totalConnections = new AtomicInteger();
+    private final AtomicInteger pendingBorrows = new AtomicInteger();
+    private final LongAdder timeouts = new LongAdder();
+    private final LatencyHistogram borrowWait = new LatencyHistogram();
+    private final LatencyHistogram holdTime = new LatencyHistogram();
+    private final ConcurrentLinkedDeque<PoolStats.LeakReport> leaks = new ConcurrentLinkedDeque<>();
+    private final Semaphore permits;
+    private final long idleTimeoutNanos;
+    private final long maxLifetimeNanos;
+    private final long keepaliveNanos;
+    private final long leakThresholdNanos;
+    private ScheduledExecutorService housekeeper;
+    private volatile boolean initialized = false;
 
     public ConnectionPool(DatabaseConfig config) {
         this.config = config;
-        this.pool = new ArrayBlockingQueue<>(config.poolSize());
+        this.permits = new Semaphore(config.poolSize());
+        this.idleTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(config.idleTimeout());
+        this.maxLifetimeNanos = TimeUnit.MILLISECONDS.toNanos(config.maxLifetime());
+        this.keepaliveNanos = TimeUnit.MILLISECONDS.toNanos(config.keepaliveInterval());
+        this.leakThresholdNanos = TimeUnit.MILLISECONDS.toNanos(config.leakDetectionThreshold());
     }
 
-    public void initialize() throws SQLException {
+    public synchronized void initialize() throws SQLException {
         if (initialized) return;
 
-        for (int i = 0; i < config.poolSize(); i++) {
-            pool.offer(createConnection());
-        }
+        // Satu koneksi dibuka langsung supaya kredensial salah langsung gagal di connect()
+        idle.offerFirst(createConnection());
         initialized = true;
+        fillToMinIdle();
+
+        housekeeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "ConnectionPool-housekeeper");
+            t.setDaemon(true);
+            return t;
+        });
+        long interval = Math.max(1000, config.keepaliveInterval() / 2);
+        housekeeper.scheduleWithFixedDelay(this::housekeep, interval, interval, TimeUnit.MILLISECONDS);
+        if (leakThresholdNanos > 0) {
+            long leakInterval = Math.max(500, config.leakDetectionThreshold() / 2);
+            housekeeper.scheduleWithFixedDelay(this::detectLeaks, leakInterval, leakInterval, TimeUnit.MILLISECONDS);
+        }
     }
 
-    private Connection createConnection() throws SQLException {
-        return DriverManager.getConnection(
+    private PooledConnection createConnection() throws SQLException {
+        Connection conn = DriverManager.getConnection(
             config.getJdbcUrl(),
             config.username(),
             config.password()
         );
+        totalConnections.incrementAndGet();
+        return new PooledConnection(conn, new StatementCache(conn, config.statementCacheSize()));
+    }
+
+    /**
+     * PreparedStatement dari cache koneksi; kembalikan lewat {@link #releaseStatement}, jangan di-close
+     */
+    public PreparedStatement prepareStatement(Connection conn, String sql, boolean returnGeneratedKeys) throws SQLException {
+        PooledConnection pooled = inUse.get(conn);
+        if (pooled == null) {
+            return new StatementCache(conn, 0).prepare(sql, returnGeneratedKeys);
+        }
+        return pooled.statements.prepare(sql, returnGeneratedKeys);
+    }
+
+    public void releaseStatement(Connection conn, PreparedStatement stmt) {
+        PooledConnection pooled = inUse.get(conn);
+        if (pooled == null) {
+            try {
+                stmt.close();
+            } catch (SQLException ignored) {}
+            return;
+        }
+        pooled.statements.release(stmt);
     }
 
     public Connection getConnection() throws SQLException {
+        long start = System.nanoTime();
+        if (!permits.tryAcquire()) {
+            pendingBorrows.incrementAndGet();
+            try {
+                if (!permits.tryAcquire(config.timeout(), TimeUnit.MILLISECONDS)) {
+                    timeouts.increment();
+                    throw new SQLException("Connection timeout - pool exhausted (" + getStats() + ")");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SQLException("Interrupted while waiting for connection", e);
+            } finally {
+                pendingBorrows.decrementAndGet();
+            }
+        }
+
         try {
-            Connection conn = pool.poll(config.timeout(), TimeUnit.MILLISECONDS);
-            if (conn == null) {
-                throw new SQLException("Connection timeout - pool exhausted");
+            PooledConnection pooled = takeIdle();
+            if (pooled == null) {
+                pooled = createConnection();
             }
-            if (!conn.isValid(1)) {
-                conn = createConnection();
+            long now = System.nanoTime();
+            pooled.borrowedAt = now;
+            pooled.borrowStack = leakThresholdNanos > 0 ? new Throwable().getStackTrace() : null;
+            pooled.leakReported = false;
+            pooled.borrowerThread = Thread.currentThread().getName();
+            inUse.put(pooled.connection, pooled);
+            borrowWait.record(now - start);
+            return pooled.connection;
+        } catch (SQLException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    private PooledConnection takeIdle() {
+        long now = System.nanoTime();
+        PooledConnection pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            if (!pooled.isExpired(now)) {
+                return pooled;
             }
-            return conn;
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            throw new SQLException("Interrupted while waiting for connection", e);
+            closeQuietly(pooled);
         }
+        return null;
     }
 
     public void releaseConnection(Connection conn) {
-        if (conn != null) {
-            pool.offer(conn);
+        if (conn == null) return;
+
+        PooledConnection pooled = inUse.remove(conn);
+        if (pooled == null) return;
+
+        long now = System.nanoTime();
+        holdTime.record(now - pooled.borrowedAt);
+        pooled.lastUsed = now;
+        pooled.borrowStack = null;
+        if (!initialized || pooled.isExpired(now) || isClosed(conn)) {
+            closeQuietly(pooled);
+        } else {
+            idle.offerFirst(pooled);
         }
+        permits.release();
     }
 
-    public void shutdown() {
-        pool.forEach(conn -> {
+    private void housekeep() {
+        if (!initialized) return;
+
+        long now = System.nanoTime();
+        for (PooledConnection pooled : idle) {
+            boolean retire = pooled.isExpired(now)
+                || (now - pooled.lastUsed > idleTimeoutNanos && idle.size() > config.minIdle());
+            if (retire) {
+                if (idle.remove(pooled)) closeQuietly(pooled);
+                continue;
+            }
+            if (now - pooled.lastValidated < keepaliveNanos) continue;
+
+            // Permit dipegang selama validasi supaya borrower tidak membuat koneksi melebihi pool size
+            if (!permits.tryAcquire()) break;
             try {
-                conn.close();
-            } catch (SQLException ignored) {}
-        });
-        pool.clear();
+                if (!idle.remove(pooled)) continue;
+                if (isValid(pooled.connection)) {
+                    pooled.lastValidated = System.nanoTime();
+                    idle.offerLast(pooled);
+                } else {
+                    closeQuietly(pooled);
+                }
+            } finally {
+                permits.release();
+            }
+        }
+        fillToMinIdle();
+    }
+
+    private void detectLeaks() {
+        long now = System.nanoTime();
+        for (PooledConnection pooled : inUse.values()) {
+            StackTraceElement[] stack = pooled.borrowStack;
+            long held = now - pooled.borrowedAt;
+            if (pooled.leakReported || stack == null || held < leakThresholdNanos) continue;
+
+            pooled.leakReported = true;
+            PoolStats.LeakReport report = new PoolStats.LeakReport(
+                pooled.borrowerThread, TimeUnit.NANOSECONDS.toMillis(held), stack);
+            leaks.offerFirst(report);
+            while (leaks.size() > MAX_LEAK_REPORTS) {
+                leaks.pollLast();
+            }
+
+            Throwable trace = new Throwable("Connection held for " + report.heldMillis()
+                + " ms by thread " + report.threadName() + ", possible leak");
+            trace.setStackTrace(stack);
+            trace.printStackTrace();
+        }
+    }
+
+    public PoolStats getStats() {
+        int total = totalConnections.get();
+        int active = inUse.size();
+        return new PoolStats(
+            total,
+            active,
+            Math.max(0, total - active),
+            pendingBorrows.get(),
+            config.poolSize(),
+            timeouts.sum(),
+            borrowWait.snapshot(),
+            holdTime.snapshot(),
+            new ArrayList<>(leaks)
+        );
+    }
+
+    /**
+     * Stack trace peminjam untuk koneksi yang saat ini sedang dipinjam
+     */
+    public List<PoolStats.LeakReport> getActiveBorrows() {
+        long now = System.nanoTime();
+        List<PoolStats.LeakReport> borrows = new ArrayList<>();
+        for (PooledConnection pooled : inUse.values()) {
+            StackTraceElement[] stack = pooled.borrowStack;
+            borrows.add(new PoolStats.LeakReport(pooled.borrowerThread,
+                TimeUnit.NANOSECONDS.toMillis(now - pooled.borrowedAt),
+                stack != null ? stack : new StackTraceElement[0]));
+        }
+        return borrows;
+    }
+
+    private void fillToMinIdle() {
+        while (initialized && idle.size() < config.minIdle()
+                && totalConnections.get() < config.poolSize() && permits.tryAcquire()) {
+            try {
+                idle.offerLast(createConnection());
+            } catch (SQLException e) {
+                // Database belum bisa dijangkau, dicoba lagi di siklus berikutnya
+                return;
+            } finally {
+                permits.release();
+            }
+        }
+    }
+
+    private boolean isValid(Connection conn) {
+        try {
+            return conn.isValid(1);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private boolean isClosed(Connection conn) {
+        try {
+            return conn.isClosed();
+        } catch (SQLException e) {
+            return true;
+        }
+    }
+
+    private void closeQuietly(PooledConnection pooled) {
+        totalConnections.decrementAndGet();
+        pooled.statements.clear();
+        try {
+            pooled.connection.close();
+        } catch (SQLException ignored) {}
+    }
+
+    public synchronized void shutdown() {
         initialized = false;
+        if (housekeeper != null) {
+            housekeeper.shutdownNow();
+            housekeeper = null;
+        }
+        PooledConnection pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            closeQuietly(pooled);
+        }
+    }
+
+    private final class PooledConnection {
+        final Connection connection;
+        final StatementCache statements;
+        final long createdAt;
+        volatile long lastUsed;
+        volatile long lastValidated;
+        volatile long borrowedAt;
+        volatile String borrowerThread;
+        volatile StackTraceElement[] borrowStack;
+        volatile boolean leakReported;
+
+        PooledConnection(Connection connection, StatementCache statements) {
+            this.connection = connection;
+            this.statements = statements;
+            this.createdAt = System.nanoTime();
+            this.lastUsed = createdAt;
+            this.lastValidated = createdAt;
+        }
+
+        boolean isExpired(long now) {
+            return now - createdAt > maxLifetimeNanos;
+        }
     }
 }
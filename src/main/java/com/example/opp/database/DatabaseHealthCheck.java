@@ -47,6 +47,26 @@ public final class DatabaseHealthCheck {
         }
     }
 
+    public static PoolStats getPoolStats() {
+        return DatabaseManager.getInstance().getPoolStats();
+    }
+
+    public static String getPoolStatus() {
+        PoolStats stats = getPoolStats();
+        StringBuilder sb = new StringBuilder();
+        sb.append("Pool: ").append(stats).append('\n');
+        sb.append("Borrow wait: ").append(stats.borrowWait()).append('\n');
+        sb.append("Hold time: ").append(stats.holdTime());
+        for (PoolStats.LeakReport leak : stats.leaks()) {
+            sb.append("\nPossible leak: held ").append(leak.heldMillis())
+              .append(" ms by ").append(leak.threadName());
+            for (StackTraceElement frame : leak.borrowStack()) {
+                sb.append("\n    at ").append(frame);
+            }
+        }
+        return sb.toString();
+    }
+
     public static void main(String[] args) {
         System.out.println("Database Health Check");
         System.out.println("=====================");
@@ -61,6 +81,7 @@ public final class DatabaseHealthCheck {
         if (isHealthy()) {
             System.out.println("✓ SUCCESS");
             System.out.println(getStatus());
+            System.out.println(getPoolStatus());
         } else {
             System.out.println("✗ FAILED");
             System.out.println(getStatus());
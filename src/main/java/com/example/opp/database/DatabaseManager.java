@@ -3,16 +3,37 @@ package com.example.opp.database;
 import com.example.opp.config.DatabaseConfig;
 
 import java.sql.Connection;
+import java.sql.PreparedStatement;
 import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public final class DatabaseManager {
 
+    private static final int MAX_TRANSACTION_ATTEMPTS = 3;
+    private static final String SERIALIZATION_FAILURE = "40001";
+    private static final String DEADLOCK_DETECTED = "40P01";
+
     private static DatabaseManager instance;
     private final ConnectionPool connectionPool;
+    private final ExecutorService asyncExecutor;
+    private final ChangeNotifier changeNotifier;
+    private final int fetchSize;
+    private final ThreadLocal<Transaction> currentTransaction = new ThreadLocal<>();
     private boolean connected = false;
 
     private DatabaseManager(DatabaseConfig config) {
         this.connectionPool = new ConnectionPool(config);
+        this.asyncExecutor = newAsyncExecutor(Math.max(1, config.poolSize()));
+        this.changeNotifier = config.listenEnabled() ? new ChangeNotifier(config) : null;
+        this.fetchSize = Math.max(1, config.fetchSize());
     }
 
     public static synchronized DatabaseManager getInstance() {
@@ -39,16 +60,80 @@ public final class DatabaseManager {
         connectionPool.releaseConnection(conn);
     }
 
+    public PreparedStatement prepareStatement(Connection conn, String sql) throws SQLException {
+        return connectionPool.prepareStatement(conn, sql, false);
+    }
+
+    public PreparedStatement prepareStatement(Connection conn, String sql, boolean returnGeneratedKeys) throws SQLException {
+        return connectionPool.prepareStatement(conn, sql, returnGeneratedKeys);
+    }
+
+    public void releaseStatement(Connection conn, PreparedStatement stmt) {
+        connectionPool.releaseStatement(conn, stmt);
+    }
+
     public void disconnect() {
+        if (changeNotifier != null) {
+            changeNotifier.stop();
+        }
         connectionPool.shutdown();
         connected = false;
     }
 
+    /**
+     * Jumlah baris per round trip untuk query streaming ({@code BaseRepository.forEach})
+     */
+    public int getFetchSize() {
+        return fetchSize;
+    }
+
     public boolean isConnected() {
         return connected;
     }
 
+    public PoolStats getPoolStats() {
+        return connectionPool.getStats();
+    }
+
+    public List<PoolStats.LeakReport> getActiveBorrows() {
+        return connectionPool.getActiveBorrows();
+    }
+
+    /**
+     * Mulai mendengarkan perubahan tabel dari client lain (trigger notify_change);
+     * tidak melakukan apa-apa jika db.listen.enabled=false
+     */
+    public void startChangeListener() {
+        if (changeNotifier != null) {
+            changeNotifier.start();
+        }
+    }
+
+    public boolean isListeningForChanges() {
+        return changeNotifier != null && changeNotifier.isListening();
+    }
+
+    public void addChangeListener(ChangeListener listener) {
+        if (changeNotifier != null) {
+            changeNotifier.addListener(listener);
+        }
+    }
+
+    public void removeChangeListener(ChangeListener listener) {
+        if (changeNotifier != null) {
+            changeNotifier.removeListener(listener);
+        }
+    }
+
+    /**
+     * Menjalankan callback dengan koneksi pool; di dalam {@link #inTransaction} koneksi transaksi yang dipakai
+     */
     public <T> T executeWithConnection(ConnectionCallback<T> callback) throws SQLException {
+        Transaction tx = currentTransaction.get();
+        if (tx != null) {
+            return callback.execute(tx.connection);
+        }
+
         Connection conn = getConnection();
         try {
             return callback.execute(conn);
@@ -58,6 +143,12 @@ public final class DatabaseManager {
     }
 
     public void executeWithConnection(ConnectionVoidCallback callback) throws SQLException {
+        Transaction tx = currentTransaction.get();
+        if (tx != null) {
+            callback.execute(tx.connection);
+            return;
+        }
+
         Connection conn = getConnection();
         try {
             callback.execute(conn);
@@ -66,11 +157,187 @@ public final class DatabaseManager {
         }
     }
 
+    public <T> T inTransaction(ConnectionCallback<T> callback) throws SQLException {
+        return inTransaction(TransactionIsolation.READ_COMMITTED, callback);
+    }
+
+    /**
+     * Menjalankan callback dalam satu transaksi. Koneksinya terikat ke thread ini, sehingga semua
+     * repository yang dipanggil dari callback ikut transaksi yang sama dan hanya ada satu commit.
+     * Pemanggilan bersarang berjalan di savepoint: gagal di dalam hanya membatalkan bagian itu
+     * (isolation level mengikuti transaksi terluar). Transaksi terluar dicoba ulang saat terjadi
+     * serialization failure atau deadlock, jadi callback harus aman dijalankan lebih dari sekali.
+     */
+    public <T> T inTransaction(TransactionIsolation isolation, ConnectionCallback<T> callback) throws SQLException {
+        Transaction tx = currentTransaction.get();
+        if (tx != null) {
+            return inSavepoint(tx, callback);
+        }
+
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return runTransaction(isolation, callback);
+            } catch (SQLException e) {
+                if (!isRetryable(e) || attempt >= MAX_TRANSACTION_ATTEMPTS) {
+                    throw e;
+                }
+                backoff(attempt);
+            }
+        }
+    }
+
+    public boolean isInTransaction() {
+        return currentTransaction.get() != null;
+    }
+
+    /**
+     * Jalankan {@code action} setelah transaksi terluar di thread ini commit, atau langsung
+     * jika tidak sedang dalam transaksi. Dibuang jika transaksinya rollback.
+     */
+    public void afterCommit(Runnable action) {
+        Transaction tx = currentTransaction.get();
+        if (tx != null) {
+            tx.afterCommit.add(action);
+        } else {
+            action.run();
+        }
+    }
+
+    /**
+     * Menjalankan {@code work} di executor I/O database. Jumlah thread sama dengan ukuran pool,
+     * jadi query independen bisa berjalan paralel tanpa mengantre lebih banyak borrower dari
+     * koneksi yang tersedia. Work berjalan di thread lain sehingga tidak ikut transaksi pemanggil;
+     * jangan menunggu future async lain dari dalam {@code work}. Future gagal dengan
+     * {@link CompletionException} yang membungkus SQLException aslinya.
+     */
+    public <T> CompletableFuture<T> supplyAsync(SqlSupplier<T> work) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return work.get();
+            } catch (SQLException e) {
+                throw new CompletionException(e);
+            }
+        }, asyncExecutor);
+    }
+
+    private static ExecutorService newAsyncExecutor(int threads) {
+        AtomicInteger counter = new AtomicInteger();
+        return Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "db-async-" + counter.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    private <T> T runTransaction(TransactionIsolation isolation, ConnectionCallback<T> callback) throws SQLException {
+        Connection conn = getConnection();
+        int previousIsolation = conn.getTransactionIsolation();
+        Transaction tx = new Transaction(conn);
+        try {
+            conn.setAutoCommit(false);
+            if (previousIsolation != isolation.jdbcLevel()) {
+                conn.setTransactionIsolation(isolation.jdbcLevel());
+            }
+            currentTransaction.set(tx);
+
+            T result = callback.execute(conn);
+            conn.commit();
+            currentTransaction.remove();
+            tx.runAfterCommit();
+            return result;
+        } catch (SQLException | RuntimeException e) {
+            rollbackQuietly(conn, e);
+            throw e;
+        } finally {
+            currentTransaction.remove();
+            try {
+                conn.setAutoCommit(true);
+                if (previousIsolation != isolation.jdbcLevel()) {
+                    conn.setTransactionIsolation(previousIsolation);
+                }
+            } catch (SQLException e) {
+                // Koneksi rusak, pool akan membuangnya saat validasi
+                System.err.println("Failed to reset connection after transaction: " + e.getMessage());
+            }
+            releaseConnection(conn);
+        }
+    }
+
+    private <T> T inSavepoint(Transaction tx, ConnectionCallback<T> callback) throws SQLException {
+        Savepoint savepoint = tx.connection.setSavepoint("sp_" + (++tx.depth));
+        int callbacks = tx.afterCommit.size();
+        try {
+            T result = callback.execute(tx.connection);
+            tx.connection.releaseSavepoint(savepoint);
+            return result;
+        } catch (SQLException | RuntimeException e) {
+            try {
+                tx.connection.rollback(savepoint);
+            } catch (SQLException rollbackError) {
+                e.addSuppressed(rollbackError);
+            }
+            // Callback dari bagian yang dibatalkan tidak ikut dijalankan
+            tx.afterCommit.subList(callbacks, tx.afterCommit.size()).clear();
+            throw e;
+        } finally {
+            tx.depth--;
+        }
+    }
+
+    private static boolean isRetryable(SQLException e) {
+        String state = e.getSQLState();
+        return SERIALIZATION_FAILURE.equals(state) || DEADLOCK_DETECTED.equals(state);
+    }
+
+    private static void backoff(int attempt) throws SQLException {
+        long delay = (10L << attempt) + ThreadLocalRandom.current().nextLong(10);
+        try {
+            Thread.sleep(delay);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while retrying transaction", e);
+        }
+    }
+
+    private static void rollbackQuietly(Connection conn, Exception cause) {
+        try {
+            conn.rollback();
+        } catch (SQLException e) {
+            cause.addSuppressed(e);
+        }
+    }
+
+    private static final class Transaction {
+        final Connection connection;
+        final List<Runnable> afterCommit = new ArrayList<>();
+        int depth;
+
+        Transaction(Connection connection) {
+            this.connection = connection;
+        }
+
+        void runAfterCommit() {
+            for (Runnable action : afterCommit) {
+                try {
+                    action.run();
+                } catch (RuntimeException e) {
+                    // Data sudah commit, kegagalan callback tidak boleh membatalkan hasilnya
+                    System.err.println("After-commit callback failed: " + e.getMessage());
+                }
+            }
+        }
+    }
+
     @FunctionalInterface
     public interface ConnectionCallback<T> {
         T execute(Connection conn) throws SQLException;
     }
 
+    @FunctionalInterface
+    public interface SqlSupplier<T> {
+        T get() throws SQLException;
+    }
+
     @FunctionalInterface
     public interface ConnectionVoidCallback {
         void execute(Connection conn) throws SQLException;
@@ -1,15 +1,30 @@
 package com.example.opp.database;
 
 import com.example.opp.config.AppConfig;
+import com.example.opp.model.Guest;
+import com.example.opp.model.Role;
+import com.example.opp.model.Room;
+import com.example.opp.model.RoomStatus;
+import com.example.opp.model.RoomType;
+import com.example.opp.model.User;
+import com.example.opp.repository.GuestRepository;
+import com.example.opp.repository.RoomRepository;
+import com.example.opp.repository.RoomTypeRepository;
+import com.example.opp.repository.UserRepository;
 import com.example.opp.util.PasswordUtil;
 
+import java.math.BigDecimal;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 /**
- * Database seeder for initial data setup
+ * Database seeder for initial data setup; tiap tabel diisi dengan satu batch insert
  * Run: mvn exec:java -Dexec.mainClass="com.example.opp.database.DatabaseSeeder"
  */
 public class DatabaseSeeder {
@@ -42,8 +57,8 @@ public class DatabaseSeeder {
 
     public void seedAll() throws SQLException {
         seedUsers();
-        seedRoomTypes();
-        seedRooms();
+        Map<String, Long> typeIds = seedRoomTypes();
+        seedRooms(typeIds);
         seedSampleGuests();
     }
 
@@ -53,44 +68,30 @@ public class DatabaseSeeder {
             return;
         }
 
-        String sql = "INSERT INTO users (username, password, email, full_name, role, active) VALUES (?, ?, ?, ?, ?, ?)";
-        Connection conn = db.getConnection();
-        
-        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
-            // Admin user
-            stmt.setString(1, "admin");
-            stmt.setString(2, PasswordUtil.hash("admin123"));
-            stmt.setString(3, "admin@hotel.com");
-            stmt.setString(4, "Administrator");
-            stmt.setString(5, "ADMIN");
-            stmt.setBoolean(6, true);
-            stmt.executeUpdate();
-            System.out.println("✓ Created admin user (password: admin123)");
-
-            // Receptionist user
-            stmt.setString(1, "receptionist");
-            stmt.setString(2, PasswordUtil.hash("staff123"));
-            stmt.setString(3, "receptionist@hotel.com");
-            stmt.setString(4, "Front Desk Staff");
-            stmt.setString(5, "RECEPTIONIST");
-            stmt.setBoolean(6, true);
-            stmt.executeUpdate();
-            System.out.println("✓ Created receptionist user (password: staff123)");
-        } finally {
-            db.releaseConnection(conn);
-        }
+        List<User> users = List.of(
+            new User("admin", PasswordUtil.hash("admin123"), "admin@hotel.com", "Administrator", Role.ADMIN),
+            new User("receptionist", PasswordUtil.hash("staff123"), "receptionist@hotel.com", "Front Desk Staff", Role.RECEPTIONIST)
+        );
+        new UserRepository().saveAll(users);
+        System.out.println("✓ Created admin user (password: admin123)");
+        System.out.println("✓ Created receptionist user (password: staff123)");
     }
 
-    private void seedRoomTypes() throws SQLException {
+    /**
+     * @return id tipe kamar per nama, dari generated keys atau dari tabel jika sudah terisi
+     */
+    private Map<String, Long> seedRoomTypes() throws SQLException {
+        RoomTypeRepository repository = new RoomTypeRepository();
+        Map<String, Long> typeIds = new HashMap<>();
         if (hasData("room_types")) {
             System.out.println("⏭ Room types already exist, skipping...");
-            return;
+            for (RoomType type : repository.findAll()) {
+                typeIds.put(type.getName(), type.getId());
+            }
+            return typeIds;
         }
 
-        String sql = "INSERT INTO room_types (name, description, base_price, capacity) VALUES (?, ?, ?, ?)";
-        Connection conn = db.getConnection();
-        
-        Object[][] types = {
+        Object[][] rows = {
             {"Single", "Cozy single room with one bed", 350000, 1},
             {"Double", "Comfortable room with queen bed", 500000, 2},
             {"Twin", "Room with two single beds", 550000, 2},
@@ -100,57 +101,54 @@ public class DatabaseSeeder {
             {"Dormitory", "Budget-friendly shared room", 150000, 1}
         };
 
-        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
-            for (Object[] type : types) {
-                stmt.setString(1, (String) type[0]);
-                stmt.setString(2, (String) type[1]);
-                stmt.setInt(3, (Integer) type[2]);
-                stmt.setInt(4, (Integer) type[3]);
-                stmt.executeUpdate();
-            }
-            System.out.println("✓ Created " + types.length + " room types");
-        } finally {
-            db.releaseConnection(conn);
+        List<RoomType> types = new ArrayList<>();
+        for (Object[] row : rows) {
+            RoomType type = new RoomType((String) row[0], BigDecimal.valueOf((Integer) row[2]), (Integer) row[3]);
+            type.setDescription((String) row[1]);
+            types.add(type);
+        }
+        List<Long> ids = repository.saveAll(types);
+        for (int i = 0; i < types.size(); i++) {
+            typeIds.put(types.get(i).getName(), ids.get(i));
         }
+        System.out.println("✓ Created " + types.size() + " room types");
+        return typeIds;
     }
 
-    private void seedRooms() throws SQLException {
+    private void seedRooms(Map<String, Long> typeIds) throws SQLException {
         if (hasData("rooms")) {
             System.out.println("⏭ Rooms already exist, skipping...");
             return;
         }
 
-        String sql = "INSERT INTO rooms (room_number, room_type_id, floor, status, amenities) VALUES (?, ?, ?, ?, ?)";
-        Connection conn = db.getConnection();
-        
-        Object[][] rooms = {
-            {"101", 1L, 1, "AVAILABLE", "AC, TV, WiFi, Hot Water"},
-            {"102", 1L, 1, "AVAILABLE", "AC, TV, WiFi, Hot Water"},
-            {"103", 2L, 1, "AVAILABLE", "AC, TV, WiFi, Mini Bar"},
-            {"104", 2L, 1, "AVAILABLE", "AC, TV, WiFi, Mini Bar"},
-            {"201", 3L, 2, "AVAILABLE", "AC, TV, WiFi, Mini Bar"},
-            {"202", 3L, 2, "AVAILABLE", "AC, TV, WiFi, Mini Bar"},
-            {"203", 4L, 2, "AVAILABLE", "AC, Smart TV, WiFi, Bathtub"},
-            {"204", 4L, 2, "MAINTENANCE", "AC, Smart TV, WiFi, Bathtub"},
-            {"301", 5L, 3, "AVAILABLE", "AC, Smart TV, WiFi, Jacuzzi"},
-            {"302", 5L, 3, "AVAILABLE", "AC, Smart TV, WiFi, Jacuzzi"},
-            {"303", 6L, 3, "AVAILABLE", "AC, Smart TV, WiFi, 2 Bedrooms"},
-            {"D01", 7L, 1, "AVAILABLE", "AC, Shared Bathroom, Locker"}
+        Object[][] rows = {
+            {"101", "Single", 1, "AVAILABLE", "AC, TV, WiFi, Hot Water"},
+            {"102", "Single", 1, "AVAILABLE", "AC, TV, WiFi, Hot Water"},
+            {"103", "Double", 1, "AVAILABLE", "AC, TV, WiFi, Mini Bar"},
+            {"104", "Double", 1, "AVAILABLE", "AC, TV, WiFi, Mini Bar"},
+            {"201", "Twin", 2, "AVAILABLE", "AC, TV, WiFi, Mini Bar"},
+            {"202", "Twin", 2, "AVAILABLE", "AC, TV, WiFi, Mini Bar"},
+            {"203", "Deluxe", 2, "AVAILABLE", "AC, Smart TV, WiFi, Bathtub"},
+            {"204", "Deluxe", 2, "MAINTENANCE", "AC, Smart TV, WiFi, Bathtub"},
+            {"301", "Suite", 3, "AVAILABLE", "AC, Smart TV, WiFi, Jacuzzi"},
+            {"302", "Suite", 3, "AVAILABLE", "AC, Smart TV, WiFi, Jacuzzi"},
+            {"303", "Family", 3, "AVAILABLE", "AC, Smart TV, WiFi, 2 Bedrooms"},
+            {"D01", "Dormitory", 1, "AVAILABLE", "AC, Shared Bathroom, Locker"}
         };
 
-        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
-            for (Object[] room : rooms) {
-                stmt.setString(1, (String) room[0]);
-                stmt.setLong(2, (Long) room[1]);
-                stmt.setInt(3, (Integer) room[2]);
-                stmt.setString(4, (String) room[3]);
-                stmt.setString(5, (String) room[4]);
-                stmt.executeUpdate();
+        List<Room> rooms = new ArrayList<>();
+        for (Object[] row : rows) {
+            Long typeId = typeIds.get((String) row[1]);
+            if (typeId == null) {
+                throw new SQLException("Room type not found: " + row[1]);
             }
-            System.out.println("✓ Created " + rooms.length + " rooms");
-        } finally {
-            db.releaseConnection(conn);
+            Room room = new Room((String) row[0], typeId, (Integer) row[2]);
+            room.setStatus(RoomStatus.valueOf((String) row[3]));
+            room.setAmenities((String) row[4]);
+            rooms.add(room);
         }
+        new RoomRepository().saveAll(rooms);
+        System.out.println("✓ Created " + rooms.size() + " rooms");
     }
 
     private void seedSampleGuests() throws SQLException {
@@ -159,30 +157,23 @@ public class DatabaseSeeder {
             return;
         }
 
-        String sql = "INSERT INTO guests (id_number, id_type, full_name, phone, email, address) VALUES (?, ?, ?, ?, ?, ?)";
-        Connection conn = db.getConnection();
-        
-        Object[][] guests = {
+        Object[][] rows = {
             {"3201234567890001", "KTP", "Budi Santoso", "081234567890", "budi@email.com", "Jakarta"},
             {"3201234567890002", "KTP", "Siti Rahayu", "081234567891", "siti@email.com", "Bandung"},
             {"A12345678", "PASSPORT", "John Smith", "+1234567890", "john@email.com", "New York, USA"},
             {"3201234567890003", "KTP", "Ahmad Wijaya", "081234567892", "ahmad@email.com", "Surabaya"}
         };
 
-        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
-            for (Object[] guest : guests) {
-                stmt.setString(1, (String) guest[0]);
-                stmt.setString(2, (String) guest[1]);
-                stmt.setString(3, (String) guest[2]);
-                stmt.setString(4, (String) guest[3]);
-                stmt.setString(5, (String) guest[4]);
-                stmt.setString(6, (String) guest[5]);
-                stmt.executeUpdate();
-            }
-            System.out.println("✓ Created " + guests.length + " sample guests");
-        } finally {
-            db.releaseConnection(conn);
+        List<Guest> guests = new ArrayList<>();
+        for (Object[] row : rows) {
+            Guest guest = new Guest((String) row[0], (String) row[2], (String) row[3]);
+            guest.setIdType(Guest.IdType.valueOf((String) row[1]));
+            guest.setEmail((String) row[4]);
+            guest.setAddress((String) row[5]);
+            guests.add(guest);
         }
+        new GuestRepository().saveAll(guests);
+        System.out.println("✓ Created " + guests.size() + " sample guests");
     }
 
     private boolean hasData(String table) throws SQLException {
@@ -0,0 +1,68 @@
+package com.example.opp.database;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histogram latensi lock-free dengan bucket pangkat dua dalam mikrodetik.
+ * Bucket b berisi sampel di rentang [2^(b-1), 2^b) us, bucket 0 untuk di bawah 1 us.
+ */
+public final class LatencyHistogram {
+
+    private static final int BUCKETS = 40;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalMicros = new LongAdder();
+    private final AtomicLong maxMicros = new AtomicLong();
+
+    public void record(long nanos) {
+        long micros = Math.max(0, nanos / 1000);
+        int bucket = Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(micros));
+        buckets.incrementAndGet(bucket);
+        count.increment();
+        totalMicros.add(micros);
+        maxMicros.accumulateAndGet(micros, Math::max);
+    }
+
+    public Snapshot snapshot() {
+        long[] counts = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = buckets.get(i);
+            total += counts[i];
+        }
+        double mean = total > 0 ? (double) totalMicros.sum() / total : 0;
+        return new Snapshot(
+            total,
+            mean,
+            percentile(counts, total, 0.50),
+            percentile(counts, total, 0.95),
+            percentile(counts, total, 0.99),
+            maxMicros.get()
+        );
+    }
+
+    private static long percentile(long[] counts, long total, double quantile) {
+        if (total == 0) return 0;
+        long rank = (long) Math.ceil(total * quantile);
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return i == 0 ? 0 : 1L << i;
+            }
+        }
+        return 1L << (counts.length - 1);
+    }
+
+    public record Snapshot(long count, double meanMicros, long p50Micros, long p95Micros,
+                           long p99Micros, long maxMicros) {
+        @Override
+        public String toString() {
+            return String.format("n=%d mean=%.0fus p50<=%dus p95<=%dus p99<=%dus max=%dus",
+                count, meanMicros, p50Micros, p95Micros, p99Micros, maxMicros);
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.opp.database;
+
+import java.util.List;
+
+/**
+ * Snapshot metrik connection pool
+ */
+public record PoolStats(
+    int total,
+    int active,
+    int idle,
+    int pending,
+    int maxSize,
+    long timeouts,
+    LatencyHistogram.Snapshot borrowWait,
+    LatencyHistogram.Snapshot holdTime,
+    List<LeakReport> leaks
+) {
+    /**
+     * Koneksi yang dipinjam melebihi leak-detection threshold, beserta stack trace peminjamnya
+     */
+    public record LeakReport(String threadName, long heldMillis, StackTraceElement[] borrowStack) {}
+
+    @Override
+    public String toString() {
+        return String.format("total=%d active=%d idle=%d pending=%d max=%d timeouts=%d leaks=%d",
+            total, active, idle, pending, maxSize, timeouts, leaks.size());
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.opp.database;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Cache LRU PreparedStatement per koneksi, key-nya teks SQL.
+ * Tidak thread-safe: satu koneksi hanya dipakai satu thread dalam satu waktu.
+ */
+final class StatementCache {
+
+    private final Connection connection;
+    private final int maxSize;
+    private final LinkedHashMap<Key, Entry> entries;
+    private final Map<PreparedStatement, Key> keysByStatement = new IdentityHashMap<>();
+
+    StatementCache(Connection connection, int maxSize) {
+        this.connection = connection;
+        this.maxSize = maxSize;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    PreparedStatement prepare(String sql, boolean returnGeneratedKeys) throws SQLException {
+        if (maxSize <= 0) {
+            return create(sql, returnGeneratedKeys);
+        }
+
+        Key key = new Key(sql, returnGeneratedKeys);
+        Entry entry = entries.get(key);
+        if (entry != null && !entry.checkedOut && !entry.statement.isClosed()) {
+            entry.checkedOut = true;
+            return entry.statement;
+        }
+        if (entry != null && entry.checkedOut) {
+            // Statement yang sama sedang dipakai (query bersarang), pakai statement sekali pakai
+            return create(sql, returnGeneratedKeys);
+        }
+        if (entry != null) {
+            remove(key);
+        }
+
+        PreparedStatement stmt = create(sql, returnGeneratedKeys);
+        Entry created = new Entry(stmt);
+        created.checkedOut = true;
+        entries.put(key, created);
+        keysByStatement.put(stmt, key);
+        evictOverflow();
+        return stmt;
+    }
+
+    void release(PreparedStatement stmt) {
+        Key key = keysByStatement.get(stmt);
+        if (key == null) {
+            closeQuietly(stmt);
+            return;
+        }
+
+        Entry entry = entries.get(key);
+        entry.checkedOut = false;
+        try {
+            stmt.clearParameters();
+        } catch (SQLException e) {
+            remove(key);
+            closeQuietly(stmt);
+        }
+        evictOverflow();
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    void clear() {
+        entries.values().forEach(entry -> closeQuietly(entry.statement));
+        entries.clear();
+        keysByStatement.clear();
+    }
+
+    private PreparedStatement create(String sql, boolean returnGeneratedKeys) throws SQLException {
+        return returnGeneratedKeys
+            ? connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)
+            : connection.prepareStatement(sql);
+    }
+
+    private void evictOverflow() {
+        Iterator<Map.Entry<Key, Entry>> it = entries.entrySet().iterator();
+        while (entries.size() > maxSize && it.hasNext()) {
+            Entry eldest = it.next().getValue();
+            if (eldest.checkedOut) continue;
+            it.remove();
+            keysByStatement.remove(eldest.statement);
+            closeQuietly(eldest.statement);
+        }
+    }
+
+    private void remove(Key key) {
+        Entry entry = entries.remove(key);
+        if (entry != null) {
+            keysByStatement.remove(entry.statement);
+        }
+    }
+
+    private static void closeQuietly(PreparedStatement stmt) {
+        try {
+            stmt.close();
+        } catch (SQLException ignored) {}
+    }
+
+    private record Key(String sql, boolean returnGeneratedKeys) {
+        Key {
+            Objects.requireNonNull(sql);
+        }
+    }
+
+    private static final class Entry {
+        final PreparedStatement statement;
+        boolean checkedOut;
+
+        Entry(PreparedStatement statement) {
+            this.statement = statement;
+        }
+    }
+}
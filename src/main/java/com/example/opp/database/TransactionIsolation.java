@@ -0,0 +1,22 @@
+package com.example.opp.database;
+
+import java.sql.Connection;
+
+/**
+ * Isolation level untuk {@link DatabaseManager#inTransaction(TransactionIsolation, DatabaseManager.ConnectionCallback)}
+ */
+public enum TransactionIsolation {
+    READ_COMMITTED(Connection.TRANSACTION_READ_COMMITTED),
+    REPEATABLE_READ(Connection.TRANSACTION_REPEATABLE_READ),
+    SERIALIZABLE(Connection.TRANSACTION_SERIALIZABLE);
+
+    private final int jdbcLevel;
+
+    TransactionIsolation(int jdbcLevel) {
+        this.jdbcLevel = jdbcLevel;
+    }
+
+    public int jdbcLevel() {
+        return jdbcLevel;
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.opp.model;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Filter daftar booking yang dijalankan di SQL: status yang ditampilkan dan teks pencarian
+ * (kode booking atau nama tamu, tanpa membedakan huruf besar/kecil)
+ */
+public record BookingFilter(Set<BookingStatus> statuses, String search) {
+
+    public static final Set<BookingStatus> ACTIVE =
+        Set.copyOf(EnumSet.of(BookingStatus.PENDING, BookingStatus.CONFIRMED, BookingStatus.CHECKED_IN));
+
+    public BookingFilter {
+        if (statuses == null || statuses.isEmpty()) {
+            throw new IllegalArgumentException("statuses must not be empty");
+        }
+        statuses = Set.copyOf(statuses);
+        search = search == null ? "" : search.trim();
+    }
+
+    public boolean hasSearch() {
+        return !search.isEmpty();
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.opp.model;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Agregat harian laporan: jumlah booking (booking yang check-in hari itu), check-in, check-out dan pendapatan
+ */
+public record DailyReportRow(LocalDate date, int bookings, int checkIns, int checkOuts, BigDecimal revenue) {}
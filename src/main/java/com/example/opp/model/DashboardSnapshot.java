@@ -0,0 +1,30 @@
+package com.example.opp.model;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Data dashboard untuk satu tanggal: ringkasan status kamar, check-in dan check-out hari itu,
+ * jumlah kamar bebas per malam mulai malam ini, plus lama pengambilan tiap bagian
+ */
+public record DashboardSnapshot(LocalDate date, RoomStatusSummary rooms, List<Booking> checkIns,
+                                List<Booking> checkOuts, int[] freeRoomsPerNight, Timings timings) {
+
+    public DashboardSnapshot {
+        checkIns = List.copyOf(checkIns);
+        checkOuts = List.copyOf(checkOuts);
+        freeRoomsPerNight = freeRoomsPerNight.clone();
+    }
+
+    @Override
+    public int[] freeRoomsPerNight() {
+        return freeRoomsPerNight.clone();
+    }
+
+    /**
+     * Durasi per bagian dalam milidetik; {@code totalMillis} adalah waktu sampai semua bagian
+     * selesai, mendekati bagian paling lambat karena semuanya diambil paralel
+     */
+    public record Timings(long roomsMillis, long checkInsMillis, long checkOutsMillis,
+                          long availabilityMillis, long totalMillis) {}
+}
@@ -53,4 +53,18 @@ public class Room {
     public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
 
     public boolean isAvailable() { return status == RoomStatus.AVAILABLE; }
+
+    /**
+     * Salinan dangkal, dipakai sebelum melengkapi Room yang berasal dari cache bersama
+     */
+    public Room copy() {
+        Room copy = new Room(roomNumber, roomTypeId, floor);
+        copy.id = id;
+        copy.roomType = roomType;
+        copy.status = status;
+        copy.amenities = amenities;
+        copy.createdAt = createdAt;
+        copy.updatedAt = updatedAt;
+        return copy;
+    }
 }
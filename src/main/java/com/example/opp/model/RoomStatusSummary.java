@@ -0,0 +1,51 @@
+package com.example.opp.model;
+
+import java.util.List;
+
+/**
+ * Jumlah kamar per status, total dan per tipe kamar, dari satu query agregat
+ */
+public record RoomStatusSummary(List<TypeCounts> roomTypes) {
+
+    public RoomStatusSummary {
+        roomTypes = List.copyOf(roomTypes);
+    }
+
+    public int count(RoomStatus status) {
+        int sum = 0;
+        for (TypeCounts type : roomTypes) {
+            sum += type.count(status);
+        }
+        return sum;
+    }
+
+    public int total() {
+        int sum = 0;
+        for (TypeCounts type : roomTypes) {
+            sum += type.total();
+        }
+        return sum;
+    }
+
+    /**
+     * Jumlah kamar per status untuk satu tipe kamar; index array mengikuti {@link RoomStatus#ordinal()}
+     */
+    public record TypeCounts(Long roomTypeId, String roomTypeName, int[] counts) {
+
+        public TypeCounts {
+            counts = counts.clone();
+        }
+
+        public int count(RoomStatus status) {
+            return counts[status.ordinal()];
+        }
+
+        public int total() {
+            int sum = 0;
+            for (int count : counts) {
+                sum += count;
+            }
+            return sum;
+        }
+    }
+}
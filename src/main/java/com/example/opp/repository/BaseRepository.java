@@ -4,11 +4,24 @@ import com.example.opp.database.DatabaseManager;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 public abstract class BaseRepository<T, ID> {
 
+    // Jumlah baris per executeBatch; batch besar dipecah supaya parameter yang ditampung tetap kecil
+    private static final int BATCH_SIZE = 500;
+
     protected final DatabaseManager db = DatabaseManager.getInstance();
 
     protected abstract T mapRow(ResultSet rs) throws SQLException;
@@ -16,35 +29,75 @@ public abstract class BaseRepository<T, ID> {
 
     protected Optional<T> findById(String idColumn, ID id) throws SQLException {
         String sql = "SELECT * FROM " + getTableName() + " WHERE " + idColumn + " = ?";
-        return db.executeWithConnection(conn -> {
-            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
-                stmt.setObject(1, id);
-                ResultSet rs = stmt.executeQuery();
-                return rs.next() ? Optional.of(mapRow(rs)) : Optional.empty();
-            }
-        });
+        return queryOne(sql, id);
     }
 
-    protected List<T> findAll() throws SQLException {
-        String sql = "SELECT * FROM " + getTableName();
-        return db.executeWithConnection(conn -> {
-            List<T> results = new ArrayList<>();
-            try (Statement stmt = conn.createStatement();
-                 ResultSet rs = stmt.executeQuery(sql)) {
-                while (rs.next()) {
-                    results.add(mapRow(rs));
+    /**
+     * Batch fetch satu query dengan binding array: WHERE id = ANY(?)
+     */
+    protected Map<ID, T> findAllByIds(String idColumn, Collection<ID> ids) throws SQLException {
+        Object[] distinctIds = ids.stream().filter(Objects::nonNull).distinct().toArray();
+        Map<ID, T> results = new LinkedHashMap<>();
+        if (distinctIds.length == 0) return results;
+
+        String sql = "SELECT * FROM " + getTableName() + " WHERE " + idColumn + " = ANY(?)";
+        return withStatement(sql, false, stmt -> {
+            Array array = stmt.getConnection().createArrayOf(getIdArrayType(), distinctIds);
+            try {
+                stmt.setArray(1, array);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        results.put(extractId(rs, idColumn), mapRow(rs));
+                    }
                 }
+            } finally {
+                array.free();
             }
             return results;
         });
     }
 
+    /**
+     * Sama seperti {@link #findAllByIds(String, Collection)}, tetapi hanya mengambil id yang
+     * belum ada di identity map dan mengembalikan instance yang sama untuk id yang sudah dimuat
+     */
+    protected Map<ID, T> findAllByIds(String idColumn, Collection<ID> ids, IdentityMap identityMap) throws SQLException {
+        Map<ID, T> loaded = identityMap.table(getTableName());
+        List<ID> missing = ids.stream()
+            .filter(Objects::nonNull)
+            .filter(id -> !loaded.containsKey(id))
+            .distinct()
+            .toList();
+        if (!missing.isEmpty()) {
+            loaded.putAll(findAllByIds(idColumn, missing));
+        }
+
+        Map<ID, T> results = new LinkedHashMap<>();
+        for (ID id : ids) {
+            T entity = loaded.get(id);
+            if (entity != null) results.put(id, entity);
+        }
+        return results;
+    }
+
+    protected String getIdArrayType() {
+        return "bigint";
+    }
+
+    @SuppressWarnings("unchecked")
+    protected ID extractId(ResultSet rs, String idColumn) throws SQLException {
+        return (ID) rs.getObject(idColumn);
+    }
+
+    protected List<T> findAll() throws SQLException {
+        return query("SELECT * FROM " + getTableName());
+    }
+
     protected List<T> query(String sql, Object... params) throws SQLException {
-        return db.executeWithConnection(conn -> {
+        return withStatement(sql, false, stmt -> {
             List<T> results = new ArrayList<>();
-            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
-                setParameters(stmt, params);
-                ResultSet rs = stmt.executeQuery();
+            setParameters(stmt, params);
+            try (ResultSet rs = stmt.executeQuery()) {
                 while (rs.next()) {
                     results.add(mapRow(rs));
                 }
@@ -54,38 +107,234 @@ public abstract class BaseRepository<T, ID> {
     }
 
     protected Optional<T> queryOne(String sql, Object... params) throws SQLException {
-        return db.executeWithConnection(conn -> {
-            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
-                setParameters(stmt, params);
-                ResultSet rs = stmt.executeQuery();
+        return withStatement(sql, false, stmt -> {
+            setParameters(stmt, params);
+            try (ResultSet rs = stmt.executeQuery()) {
                 return rs.next() ? Optional.of(mapRow(rs)) : Optional.empty();
             }
         });
     }
 
     protected int execute(String sql, Object... params) throws SQLException {
-        return db.executeWithConnection(conn -> {
-            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
-                setParameters(stmt, params);
-                return stmt.executeUpdate();
-            }
+        return withStatement(sql, false, stmt -> {
+            setParameters(stmt, params);
+            return stmt.executeUpdate();
         });
     }
 
     protected long insert(String sql, Object... params) throws SQLException {
-        return db.executeWithConnection(conn -> {
-            try (PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
-                setParameters(stmt, params);
-                stmt.executeUpdate();
-                ResultSet keys = stmt.getGeneratedKeys();
+        return withStatement(sql, true, stmt -> {
+            setParameters(stmt, params);
+            stmt.executeUpdate();
+            try (ResultSet keys = stmt.getGeneratedKeys()) {
                 return keys.next() ? keys.getLong(1) : -1;
             }
         });
     }
 
+    /**
+     * Insert banyak baris dengan satu PreparedStatement lewat addBatch/executeBatch dalam satu transaksi.
+     * Dengan {@code reWriteBatchedInserts} driver menulis ulang batch INSERT ... VALUES menjadi INSERT
+     * multi-baris, jadi ratusan baris cukup beberapa round trip.
+     *
+     * @return id hasil generate, urut sesuai {@code items}
+     */
+    protected <E> List<Long> batchInsert(String sql, List<E> items, ParameterMapper<E> mapper) throws SQLException {
+        if (items.isEmpty()) return List.of();
+        return db.inTransaction(conn -> {
+            return withStatement(sql, true, stmt -> {
+                List<Long> ids = new ArrayList<>(items.size());
+                for (int from = 0; from < items.size(); from += BATCH_SIZE) {
+                    addBatch(stmt, items.subList(from, Math.min(from + BATCH_SIZE, items.size())), mapper);
+                    stmt.executeBatch();
+                    try (ResultSet keys = stmt.getGeneratedKeys()) {
+                        while (keys.next()) {
+                            ids.add(keys.getLong(1));
+                        }
+                    }
+                }
+                return ids;
+            });
+        });
+    }
+
+    /**
+     * UPDATE/DELETE banyak baris dengan addBatch/executeBatch dalam satu transaksi
+     *
+     * @return jumlah baris yang berubah
+     */
+    protected <E> int batchUpdate(String sql, List<E> items, ParameterMapper<E> mapper) throws SQLException {
+        if (items.isEmpty()) return 0;
+        return db.inTransaction(conn -> {
+            return withStatement(sql, false, stmt -> {
+                int updated = 0;
+                for (int from = 0; from < items.size(); from += BATCH_SIZE) {
+                    addBatch(stmt, items.subList(from, Math.min(from + BATCH_SIZE, items.size())), mapper);
+                    for (int count : stmt.executeBatch()) {
+                        updated += count == Statement.SUCCESS_NO_INFO ? 1 : count;
+                    }
+                }
+                return updated;
+            });
+        });
+    }
+
+    /**
+     * Jalankan {@code action} untuk tiap baris hasil query tanpa menampung seluruh hasil di memori.
+     * Driver PostgreSQL hanya mengambil hasil bertahap (fetch size baris per round trip) jika
+     * autocommit mati, jadi query dijalankan di dalam transaksi; transaksi yang sedang berjalan
+     * di thread ini ikut dipakai. Jangan menulis ke database lewat koneksi lain dari {@code action}
+     * sambil menunggu hasilnya, karena koneksi ini tetap dipinjam sampai baris terakhir.
+     *
+     * @return jumlah baris
+     */
+    protected long forEach(String sql, RowAction<T> action, Object... params) throws SQLException {
+        return db.inTransaction(conn -> {
+            return withStatement(sql, false, stmt -> {
+                setParameters(stmt, params);
+                stmt.setFetchSize(db.getFetchSize());
+                long rows = 0;
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        action.accept(mapRow(rs));
+                        rows++;
+                    }
+                } finally {
+                    // Statement di-cache per koneksi; jangan bawa fetch size ke query berikutnya
+                    stmt.setFetchSize(0);
+                }
+                return rows;
+            });
+        });
+    }
+
+    /**
+     * Versi Stream dari {@link #forEach}; stream hanya valid di dalam {@code callback} dan ditutup sesudahnya
+     */
+    protected <R> R stream(String sql, StreamCallback<T, R> callback, Object... params) throws SQLException {
+        return db.inTransaction(conn -> {
+            return withStatement(sql, false, stmt -> {
+                setParameters(stmt, params);
+                stmt.setFetchSize(db.getFetchSize());
+                try (ResultSet rs = stmt.executeQuery();
+                     Stream<T> rows = StreamSupport.stream(new RowSpliterator(rs), false)) {
+                    return callback.apply(rows);
+                } catch (RowMappingException e) {
+                    throw e.getCause();
+                } finally {
+                    stmt.setFetchSize(0);
+                }
+            });
+        });
+    }
+
+    /**
+     * Pola {@code %text%} untuk LIKE/ILIKE dengan karakter wildcard di {@code text} di-escape;
+     * dengan index GIN pg_trgm pola ini tetap memakai index walau diawali {@code %}
+     */
+    protected static String containsPattern(String text) {
+        return "%" + text.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+    }
+
+    /**
+     * Versi async dari {@link #query}: berjalan di executor I/O database dengan koneksinya sendiri
+     */
+    protected CompletableFuture<List<T>> queryAsync(String sql, Object... params) {
+        return db.supplyAsync(() -> query(sql, params));
+    }
+
+    protected CompletableFuture<Optional<T>> queryOneAsync(String sql, Object... params) {
+        return db.supplyAsync(() -> queryOne(sql, params));
+    }
+
+    protected CompletableFuture<Integer> executeAsync(String sql, Object... params) {
+        return db.supplyAsync(() -> execute(sql, params));
+    }
+
+    /**
+     * Menjalankan callback dengan PreparedStatement dari cache statement koneksi pool
+     */
+    protected <R> R withStatement(String sql, boolean returnGeneratedKeys, StatementCallback<R> callback) throws SQLException {
+        return db.executeWithConnection(conn -> {
+            PreparedStatement stmt = db.prepareStatement(conn, sql, returnGeneratedKeys);
+            try {
+                return callback.execute(stmt);
+            } finally {
+                db.releaseStatement(conn, stmt);
+            }
+        });
+    }
+
     private void setParameters(PreparedStatement stmt, Object... params) throws SQLException {
         for (int i = 0; i < params.length; i++) {
             stmt.setObject(i + 1, params[i]);
         }
     }
+
+    private <E> void addBatch(PreparedStatement stmt, List<E> items, ParameterMapper<E> mapper) throws SQLException {
+        try {
+            for (E item : items) {
+                setParameters(stmt, mapper.toParameters(item));
+                stmt.addBatch();
+            }
+        } catch (SQLException | RuntimeException e) {
+            // Statement di-cache per koneksi; jangan tinggalkan batch setengah jadi
+            stmt.clearBatch();
+            throw e;
+        }
+    }
+
+    @FunctionalInterface
+    protected interface StatementCallback<R> {
+        R execute(PreparedStatement stmt) throws SQLException;
+    }
+
+    @FunctionalInterface
+    protected interface ParameterMapper<E> {
+        Object[] toParameters(E item);
+    }
+
+    @FunctionalInterface
+    public interface RowAction<T> {
+        void accept(T row) throws SQLException;
+    }
+
+    @FunctionalInterface
+    public interface StreamCallback<T, R> {
+        R apply(Stream<T> rows) throws SQLException;
+    }
+
+    private final class RowSpliterator extends Spliterators.AbstractSpliterator<T> {
+        private final ResultSet rs;
+
+        RowSpliterator(ResultSet rs) {
+            super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL);
+            this.rs = rs;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action) {
+            try {
+                if (!rs.next()) return false;
+                action.accept(mapRow(rs));
+                return true;
+            } catch (SQLException e) {
+                throw new RowMappingException(e);
+            }
+        }
+    }
+
+    // Membawa SQLException keluar dari Stream, dibuka lagi di stream()
+    private static final class RowMappingException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        RowMappingException(SQLException cause) {
+            super(cause);
+        }
+
+        @Override
+        public synchronized SQLException getCause() {
+            return (SQLException) super.getCause();
+        }
+    }
 }
@@ -1,18 +1,49 @@
 package com.example.opp.repository;
 
 import com.example.opp.model.Booking;
+import com.example.opp.model.BookingFilter;
 import com.example.opp.model.BookingStatus;
+import com.example.opp.model.Guest;
+import com.example.opp.model.Room;
+import com.example.opp.model.RoomStatus;
+import com.example.opp.model.RoomType;
 
 import java.sql.Date;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Timestamp;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
 public class BookingRepository extends BaseRepository<Booking, Long> {
 
+    private static final String IN_PERIOD_SQL =
+        "SELECT * FROM bookings WHERE check_in_date <= ? AND check_out_date >= ? ORDER BY created_at DESC";
+
+    // bookings ⨝ guests ⨝ rooms ⨝ room_types, kolom relasi diberi prefix supaya tidak bentrok dengan b.*
+    private static final String DETAIL_SELECT =
+        "SELECT b.*, " +
+        "g.id AS g_id, g.id_number AS g_id_number, g.id_type AS g_id_type, g.full_name AS g_full_name, " +
+        "g.phone AS g_phone, g.email AS g_email, g.address AS g_address, " +
+        "g.created_at AS g_created_at, g.updated_at AS g_updated_at, " +
+        "r.id AS r_id, r.room_number AS r_room_number, r.room_type_id AS r_room_type_id, r.floor AS r_floor, " +
+        "r.status AS r_status, r.amenities AS r_amenities, r.created_at AS r_created_at, r.updated_at AS r_updated_at, " +
+        "rt.id AS rt_id, rt.name AS rt_name, rt.description AS rt_description, rt.base_price AS rt_base_price, " +
+        "rt.capacity AS rt_capacity, rt.image_url AS rt_image_url, rt.created_at AS rt_created_at " +
+        "FROM bookings b " +
+        "JOIN guests g ON g.id = b.guest_id " +
+        "JOIN rooms r ON r.id = b.room_id " +
+        "JOIN room_types rt ON rt.id = r.room_type_id ";
+
+    private static final String INSERT_SQL =
+        "INSERT INTO bookings (booking_code, guest_id, room_id, check_in_date, check_out_date, " +
+        "total_nights, room_rate, total_amount, status, notes, created_by) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    // SQLState exclusion_violation dari constraint excl_bookings_room_dates
+    private static final String EXCLUSION_VIOLATION = "23P01";
+
     @Override
     protected String getTableName() { return "bookings"; }
 
@@ -48,10 +79,76 @@ public class BookingRepository extends BaseRepository<Booking, Long> {
         return booking;
     }
 
+    private Booking mapDetailRow(ResultSet rs) throws SQLException {
+        Booking booking = mapRow(rs);
+
+        Guest guest = new Guest();
+        guest.setId(rs.getLong("g_id"));
+        guest.setIdNumber(rs.getString("g_id_number"));
+        guest.setIdType(Guest.IdType.valueOf(rs.getString("g_id_type")));
+        guest.setFullName(rs.getString("g_full_name"));
+        guest.setPhone(rs.getString("g_phone"));
+        guest.setEmail(rs.getString("g_email"));
+        guest.setAddress(rs.getString("g_address"));
+        Timestamp guestCreated = rs.getTimestamp("g_created_at");
+        if (guestCreated != null) guest.setCreatedAt(guestCreated.toLocalDateTime());
+        Timestamp guestUpdated = rs.getTimestamp("g_updated_at");
+        if (guestUpdated != null) guest.setUpdatedAt(guestUpdated.toLocalDateTime());
+
+        RoomType type = new RoomType();
+        type.setId(rs.getLong("rt_id"));
+        type.setName(rs.getString("rt_name"));
+        type.setDescription(rs.getString("rt_description"));
+        type.setBasePrice(rs.getBigDecimal("rt_base_price"));
+        type.setCapacity(rs.getInt("rt_capacity"));
+        type.setImageUrl(rs.getString("rt_image_url"));
+        Timestamp typeCreated = rs.getTimestamp("rt_created_at");
+        if (typeCreated != null) type.setCreatedAt(typeCreated.toLocalDateTime());
+
+        Room room = new Room();
+        room.setId(rs.getLong("r_id"));
+        room.setRoomNumber(rs.getString("r_room_number"));
+        room.setRoomTypeId(rs.getLong("r_room_type_id"));
+        room.setFloor(rs.getInt("r_floor"));
+        room.setStatus(RoomStatus.valueOf(rs.getString("r_status")));
+        room.setAmenities(rs.getString("r_amenities"));
+        Timestamp roomCreated = rs.getTimestamp("r_created_at");
+        if (roomCreated != null) room.setCreatedAt(roomCreated.toLocalDateTime());
+        Timestamp roomUpdated = rs.getTimestamp("r_updated_at");
+        if (roomUpdated != null) room.setUpdatedAt(roomUpdated.toLocalDateTime());
+        room.setRoomType(type);
+
+        booking.setGuest(guest);
+        booking.setRoom(room);
+        return booking;
+    }
+
+    private List<Booking> queryWithDetails(String clause, Object... params) throws SQLException {
+        return withStatement(DETAIL_SELECT + clause, false, stmt -> {
+            for (int i = 0; i < params.length; i++) {
+                stmt.setObject(i + 1, params[i]);
+            }
+            List<Booking> results = new ArrayList<>();
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    results.add(mapDetailRow(rs));
+                }
+            }
+            return results;
+        });
+    }
+
     public Optional<Booking> findById(Long id) throws SQLException {
         return super.findById("id", id);
     }
 
+    /**
+     * Mengunci baris booking sampai transaksi selesai; hanya bermakna di dalam {@code inTransaction}
+     */
+    public Optional<Booking> findByIdForUpdate(Long id) throws SQLException {
+        return queryOne("SELECT * FROM bookings WHERE id = ? FOR UPDATE", id);
+    }
+
     public Optional<Booking> findByBookingCode(String code) throws SQLException {
         return queryOne("SELECT * FROM bookings WHERE booking_code = ?", code);
     }
@@ -83,29 +180,103 @@ public class BookingRepository extends BaseRepository<Booking, Long> {
         return query("SELECT * FROM bookings WHERE status IN ('PENDING', 'CONFIRMED', 'CHECKED_IN') ORDER BY check_in_date");
     }
 
+    /**
+     * Booking yang check-in atau check-out di dalam [from, to], atau menginap melewati seluruh rentang
+     */
+    public List<Booking> findInPeriod(LocalDate from, LocalDate to) throws SQLException {
+        return query(IN_PERIOD_SQL, Date.valueOf(to), Date.valueOf(from));
+    }
+
+    /**
+     * Versi streaming dari {@link #findInPeriod}: baris dibaca bertahap dengan cursor,
+     * untuk laporan rentang panjang
+     */
+    public long forEachInPeriod(LocalDate from, LocalDate to, RowAction<Booking> action) throws SQLException {
+        return forEach(IN_PERIOD_SQL, action, Date.valueOf(to), Date.valueOf(from));
+    }
+
+    public List<Booking> findBlockingBookings() throws SQLException {
+        return query("SELECT * FROM bookings WHERE status NOT IN ('CANCELLED', 'CHECKED_OUT')");
+    }
+
+    public List<Booking> findTodayCheckInsWithDetails() throws SQLException {
+        return queryWithDetails(
+            "WHERE b.check_in_date = ? AND b.status IN ('PENDING', 'CONFIRMED') ORDER BY b.created_at",
+            Date.valueOf(LocalDate.now())
+        );
+    }
+
+    public List<Booking> findTodayCheckOutsWithDetails() throws SQLException {
+        return queryWithDetails(
+            "WHERE b.check_out_date = ? AND b.status = 'CHECKED_IN' ORDER BY b.created_at",
+            Date.valueOf(LocalDate.now())
+        );
+    }
+
+    public List<Booking> findActiveBookingsWithDetails() throws SQLException {
+        return queryWithDetails("WHERE b.status IN ('PENDING', 'CONFIRMED', 'CHECKED_IN') ORDER BY b.check_in_date");
+    }
+
+    public List<Booking> findAllWithDetails() throws SQLException {
+        return queryWithDetails("ORDER BY b.created_at DESC");
+    }
+
+    /**
+     * Satu halaman booking dengan relasi, diurutkan terbaru dulu berdasarkan (created_at, id).
+     * Dengan {@code anchor} null halaman diambil dari awal; selain itu {@code older} memilih
+     * baris sesudah anchor (lebih lama) atau sebelum anchor (lebih baru, dikembalikan urut naik
+     * supaya baris terdekat dengan anchor ada di depan). Status dan pencarian difilter di SQL.
+     */
+    public List<Booking> findPageWithDetails(BookingFilter filter, Booking anchor, boolean older, int limit)
+            throws SQLException {
+        List<Object> params = new ArrayList<>();
+        StringBuilder clause = new StringBuilder("WHERE b.status IN (");
+        for (BookingStatus status : filter.statuses()) {
+            clause.append(params.isEmpty() ? "?" : ", ?");
+            params.add(status.name());
+        }
+        clause.append(")");
+
+        if (filter.hasSearch()) {
+            String pattern = containsPattern(filter.search());
+            clause.append(" AND (b.booking_code ILIKE ? OR g.full_name ILIKE ?)");
+            params.add(pattern);
+            params.add(pattern);
+        }
+
+        String direction = older ? "DESC" : "ASC";
+        if (anchor != null) {
+            clause.append(older ? " AND (b.created_at, b.id) < (?, ?)" : " AND (b.created_at, b.id) > (?, ?)");
+            params.add(Timestamp.valueOf(anchor.getCreatedAt()));
+            params.add(anchor.getId());
+        }
+        clause.append(" ORDER BY b.created_at ").append(direction).append(", b.id ").append(direction)
+            .append(" LIMIT ?");
+        params.add(limit);
+
+        return queryWithDetails(clause.toString(), params.toArray());
+    }
+
     public boolean isRoomAvailable(Long roomId, LocalDate checkIn, LocalDate checkOut) throws SQLException {
-        return db.executeWithConnection(conn -> {
-            var stmt = conn.prepareStatement(
-                "SELECT COUNT(*) FROM bookings WHERE room_id = ? AND status NOT IN ('CANCELLED', 'CHECKED_OUT') " +
-                "AND ((check_in_date <= ? AND check_out_date > ?) OR (check_in_date < ? AND check_out_date >= ?) " +
-                "OR (check_in_date >= ? AND check_out_date <= ?))"
-            );
+        // Rentang setengah terbuka [check_in, check_out): tamu baru boleh check-in di hari tamu lama check-out
+        return withStatement(
+            "SELECT COUNT(*) FROM bookings WHERE room_id = ? AND status NOT IN ('CANCELLED', 'CHECKED_OUT') " +
+            "AND check_in_date < ? AND check_out_date > ?", false, stmt -> {
             stmt.setLong(1, roomId);
             stmt.setDate(2, Date.valueOf(checkOut));
             stmt.setDate(3, Date.valueOf(checkIn));
-            stmt.setDate(4, Date.valueOf(checkOut));
-            stmt.setDate(5, Date.valueOf(checkIn));
-            stmt.setDate(6, Date.valueOf(checkIn));
-            stmt.setDate(7, Date.valueOf(checkOut));
-            var rs = stmt.executeQuery();
-            return rs.next() && rs.getInt(1) == 0;
+            try (var rs = stmt.executeQuery()) {
+                return rs.next() && rs.getInt(1) == 0;
+            }
         });
     }
 
     public long save(Booking booking) throws SQLException {
-        return insert(
-            "INSERT INTO bookings (booking_code, guest_id, room_id, check_in_date, check_out_date, " +
-            "total_nights, room_rate, total_amount, status, notes, created_by) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
+        return insert(INSERT_SQL, insertParams(booking));
+    }
+
+    private static Object[] insertParams(Booking booking) {
+        return new Object[] {
             booking.getBookingCode(),
             booking.getGuestId(),
             booking.getRoomId(),
@@ -117,7 +288,42 @@ public class BookingRepository extends BaseRepository<Booking, Long> {
             booking.getStatus().name(),
             booking.getNotes(),
             booking.getCreatedBy()
-        );
+        };
+    }
+
+    /**
+     * Insert booking dalam transaksi (ikut transaksi yang sedang berjalan jika ada). Baris kamar dikunci
+     * dengan FOR UPDATE sehingga pembuat booking untuk kamar yang sama berjalan bergiliran, lalu overlap
+     * dicek ulang sebelum insert. Exclusion constraint excl_bookings_room_dates menjaga klien yang tidak
+     * mengunci kamar (mis. channel web); insert berjalan di savepoint supaya pelanggaran constraint tidak
+     * membatalkan transaksi pemanggil.
+     *
+     * @return id booking baru, atau -1 jika kamar sudah terisi pada rentang tersebut
+     */
+    public long saveIfAvailable(Booking booking) throws SQLException {
+        return db.inTransaction(conn -> {
+            boolean roomExists = withStatement("SELECT id FROM rooms WHERE id = ? FOR UPDATE", false, stmt -> {
+                stmt.setLong(1, booking.getRoomId());
+                try (ResultSet rs = stmt.executeQuery()) {
+                    return rs.next();
+                }
+            });
+            if (!roomExists) {
+                throw new IllegalArgumentException("Room not found");
+            }
+            if (!isRoomAvailable(booking.getRoomId(), booking.getCheckInDate(), booking.getCheckOutDate())) {
+                return -1L;
+            }
+
+            try {
+                return db.inTransaction(savepoint -> save(booking));
+            } catch (SQLException e) {
+                if (EXCLUSION_VIOLATION.equals(e.getSQLState())) {
+                    return -1L;
+                }
+                throw e;
+            }
+        });
     }
 
     public int updateStatus(Long id, BookingStatus status) throws SQLException {
@@ -144,12 +350,39 @@ public class BookingRepository extends BaseRepository<Booking, Long> {
         return query("SELECT * FROM bookings ORDER BY created_at DESC");
     }
 
-    public int countNewWebBookingsSince(java.time.LocalDateTime since) throws SQLException {
-        return db.executeWithConnection(conn -> {
-            var stmt = conn.prepareStatement("SELECT COUNT(*) FROM bookings WHERE booking_source = 'WEB' AND created_at > ?");
-            stmt.setTimestamp(1, java.sql.Timestamp.valueOf(since));
-            var rs = stmt.executeQuery();
-            return rs.next() ? rs.getInt(1) : 0;
+
+    /**
+     * High-water mark notifikasi web booking: id terbesar dari server, bukan jam client
+     */
+    public long findMaxWebBookingId() throws SQLException {
+        return withStatement("SELECT COALESCE(MAX(id), 0) FROM bookings WHERE booking_source = 'WEB'", false, stmt -> {
+            try (var rs = stmt.executeQuery()) {
+                return rs.next() ? rs.getLong(1) : 0L;
+            }
+        });
+    }
+
+    public List<Long> findWebBookingIdsAfter(long afterId, int limit) throws SQLException {
+        return withStatement(
+            "SELECT id FROM bookings WHERE booking_source = 'WEB' AND id > ? ORDER BY id LIMIT ?", false, stmt -> {
+            stmt.setLong(1, afterId);
+            stmt.setInt(2, limit);
+            List<Long> ids = new ArrayList<>();
+            try (var rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    ids.add(rs.getLong(1));
+                }
+            }
+            return ids;
+        });
+    }
+
+    public boolean isWebBooking(long id) throws SQLException {
+        return withStatement("SELECT 1 FROM bookings WHERE id = ? AND booking_source = 'WEB'", false, stmt -> {
+            stmt.setLong(1, id);
+            try (var rs = stmt.executeQuery()) {
+                return rs.next();
+            }
         });
     }
 
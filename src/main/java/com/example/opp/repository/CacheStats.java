@@ -0,0 +1,26 @@
+package com.example.opp.repository;
+
+/**
+ * Snapshot counter {@link EntityCache}
+ */
+public record CacheStats(
+    String name,
+    int size,
+    int maxSize,
+    long hits,
+    long misses,
+    long evictions,
+    long expirations,
+    long invalidations
+) {
+    public double hitRate() {
+        long requests = hits + misses;
+        return requests > 0 ? (double) hits / requests : 0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: size=%d/%d hits=%d misses=%d hitRate=%.1f%% evictions=%d expirations=%d invalidations=%d",
+            name, size, maxSize, hits, misses, hitRate() * 100, evictions, expirations, invalidations);
+    }
+}
@@ -0,0 +1,155 @@
+package com.example.opp.repository;
+
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Cache read-through untuk data referensi, dibagi antar thread. Ukurannya dibatasi (LRU),
+ * entri kedaluwarsa setelah TTL, dan bisa di-invalidate per id atau seluruhnya.
+ * Instance yang dikembalikan dipakai bersama, jadi perlakukan sebagai read-only.
+ */
+public final class EntityCache<ID, T> {
+
+    private final String name;
+    private final int maxSize;
+    private final long ttlNanos;
+    private final LongSupplier ticker;
+    private final LinkedHashMap<ID, Entry<T>> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    // Dinaikkan setiap invalidate; hasil load yang dimulai sebelumnya tidak disimpan
+    private long generation;
+
+    public EntityCache(String name, int maxSize, long ttl, TimeUnit unit) {
+        this(name, maxSize, unit.toNanos(ttl), System::nanoTime);
+    }
+
+    EntityCache(String name, int maxSize, long ttlNanos, LongSupplier ticker) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("maxSize must be positive");
+        }
+        this.name = name;
+        this.maxSize = maxSize;
+        this.ttlNanos = ttlNanos;
+        this.ticker = ticker;
+    }
+
+    public Optional<T> get(ID id, Loader<ID, T> loader) throws SQLException {
+        long loadGeneration;
+        synchronized (this) {
+            T cached = lookup(id);
+            if (cached != null) return Optional.of(cached);
+            loadGeneration = generation;
+        }
+
+        Optional<T> loaded = loader.load(id);
+        loaded.ifPresent(value -> store(id, value, loadGeneration));
+        return loaded;
+    }
+
+    /**
+     * Ambil semua id sekaligus; hanya id yang belum ada di cache yang diteruskan ke {@code loader}
+     */
+    public Map<ID, T> getAll(Collection<ID> ids, BulkLoader<ID, T> loader) throws SQLException {
+        Map<ID, T> results = new LinkedHashMap<>();
+        Set<ID> missing = new LinkedHashSet<>();
+        long loadGeneration;
+        synchronized (this) {
+            for (ID id : ids) {
+                if (id == null || results.containsKey(id) || missing.contains(id)) continue;
+                T cached = lookup(id);
+                if (cached != null) {
+                    results.put(id, cached);
+                } else {
+                    missing.add(id);
+                }
+            }
+            loadGeneration = generation;
+        }
+
+        if (!missing.isEmpty()) {
+            Map<ID, T> loaded = loader.load(List.copyOf(missing));
+            for (Map.Entry<ID, T> entry : loaded.entrySet()) {
+                results.put(entry.getKey(), entry.getValue());
+                store(entry.getKey(), entry.getValue(), loadGeneration);
+            }
+        }
+        return results;
+    }
+
+    public synchronized void invalidate(ID id) {
+        entries.remove(id);
+        generation++;
+        invalidations.increment();
+    }
+
+    public synchronized void invalidateAll() {
+        entries.clear();
+        generation++;
+        invalidations.increment();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized CacheStats getStats() {
+        return new CacheStats(name, entries.size(), maxSize, hits.sum(), misses.sum(),
+            evictions.sum(), expirations.sum(), invalidations.sum());
+    }
+
+    private T lookup(ID id) {
+        Entry<T> entry = entries.get(id);
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        if (ticker.getAsLong() - entry.loadedAt >= ttlNanos) {
+            entries.remove(id);
+            expirations.increment();
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return entry.value;
+    }
+
+    private synchronized void store(ID id, T value, long loadGeneration) {
+        if (loadGeneration != generation) return;
+        entries.put(Objects.requireNonNull(id), new Entry<>(value, ticker.getAsLong()));
+        Iterator<Map.Entry<ID, Entry<T>>> eldest = entries.entrySet().iterator();
+        while (entries.size() > maxSize && eldest.hasNext()) {
+            eldest.next();
+            eldest.remove();
+            evictions.increment();
+        }
+    }
+
+    private record Entry<T>(T value, long loadedAt) {}
+
+    @FunctionalInterface
+    public interface Loader<ID, T> {
+        Optional<T> load(ID id) throws SQLException;
+    }
+
+    @FunctionalInterface
+    public interface BulkLoader<ID, T> {
+        Map<ID, T> load(Collection<ID> ids) throws SQLException;
+    }
+}
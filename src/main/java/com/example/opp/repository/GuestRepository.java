@@ -5,11 +5,16 @@ import com.example.opp.model.Guest;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Timestamp;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 public class GuestRepository extends BaseRepository<Guest, Long> {
 
+    private static final String INSERT_SQL =
+        "INSERT INTO guests (id_number, id_type, full_name, phone, email, address) VALUES (?, ?, ?, ?, ?, ?)";
+
     @Override
     protected String getTableName() { return "guests"; }
 
@@ -37,24 +42,42 @@ public class GuestRepository extends BaseRepository<Guest, Long> {
         return super.findById("id", id);
     }
 
+    public Map<Long, Guest> findAllByIds(Collection<Long> ids) throws SQLException {
+        return super.findAllByIds("id", ids);
+    }
+
+    public Map<Long, Guest> findAllByIds(Collection<Long> ids, IdentityMap identityMap) throws SQLException {
+        return super.findAllByIds("id", ids, identityMap);
+    }
+
     public Optional<Guest> findByIdNumber(String idNumber) throws SQLException {
         return queryOne("SELECT * FROM guests WHERE id_number = ?", idNumber);
     }
 
-    public List<Guest> searchByName(String name) throws SQLException {
-        return query("SELECT * FROM guests WHERE full_name LIKE ? ORDER BY full_name", "%" + name + "%");
+    /**
+     * Cari tamu lewat nama, nomor identitas atau telepon. Cocok substring (ILIKE) atau mirip
+     * secara trigram untuk nama yang salah ketik; keduanya dilayani index GIN pg_trgm.
+     * Hasil paling mirip di atas.
+     */
+    public List<Guest> search(String text, int limit) throws SQLException {
+        String pattern = containsPattern(text.trim());
+        return query(
+            "SELECT * FROM guests " +
+            "WHERE full_name ILIKE ? OR id_number ILIKE ? OR phone ILIKE ? OR full_name % ? " +
+            "ORDER BY similarity(full_name, ?) DESC, full_name LIMIT ?",
+            pattern, pattern, pattern, text.trim(), text.trim(), limit
+        );
     }
 
     public long save(Guest guest) throws SQLException {
-        return insert(
-            "INSERT INTO guests (id_number, id_type, full_name, phone, email, address) VALUES (?, ?, ?, ?, ?, ?)",
-            guest.getIdNumber(),
-            guest.getIdType().name(),
-            guest.getFullName(),
-            guest.getPhone(),
-            guest.getEmail(),
-            guest.getAddress()
-        );
+        return insert(INSERT_SQL, insertParameters(guest));
+    }
+
+    /**
+     * Insert semua tamu dalam satu batch; id hasil generate dikembalikan sesuai urutan list
+     */
+    public List<Long> saveAll(List<Guest> guests) throws SQLException {
+        return batchInsert(INSERT_SQL, guests, GuestRepository::insertParameters);
     }
 
     public int update(Guest guest) throws SQLException {
@@ -81,4 +104,15 @@ public class GuestRepository extends BaseRepository<Guest, Long> {
     public List<Guest> findAll() throws SQLException {
         return super.findAll();
     }
+
+    private static Object[] insertParameters(Guest guest) {
+        return new Object[] {
+            guest.getIdNumber(),
+            guest.getIdType().name(),
+            guest.getFullName(),
+            guest.getPhone(),
+            guest.getEmail(),
+            guest.getAddress()
+        };
+    }
 }
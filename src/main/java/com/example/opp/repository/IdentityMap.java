@@ -0,0 +1,22 @@
+package com.example.opp.repository;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Identity map per request (satu kali load layar): setiap baris hanya
+ * di-materialisasi sekali per tabel, pemanggil berikutnya mendapat instance yang sama.
+ * Tidak thread-safe, buat instance baru untuk setiap request.
+ */
+public final class IdentityMap {
+
+    private final Map<String, Map<Object, Object>> tables = new HashMap<>();
+
+    /**
+     * Instance yang sudah dimuat untuk {@code tableName}, per id
+     */
+    @SuppressWarnings("unchecked")
+    public <ID, T> Map<ID, T> table(String tableName) {
+        return (Map<ID, T>) (Map<?, ?>) tables.computeIfAbsent(tableName, k -> new HashMap<>());
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.opp.repository;
+
+import com.example.opp.model.DailyReportRow;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Laporan dari tabel rollup daily_stats (per tanggal, per tipe kamar).
+ * Rollup dirawat oleh trigger di tabel bookings (lihat refresh_daily_stats di schema),
+ * sehingga laporan tidak perlu membaca tabel bookings mentah.
+ */
+public class ReportRepository extends BaseRepository<DailyReportRow, LocalDate> {
+
+    private static final String DAILY_SQL =
+        "SELECT stat_date, SUM(check_ins) AS check_ins, SUM(check_outs) AS check_outs, SUM(revenue) AS revenue " +
+        "FROM daily_stats WHERE stat_date BETWEEN ? AND ? " +
+        "GROUP BY stat_date HAVING SUM(check_ins) > 0 OR SUM(check_outs) > 0 " +
+        "ORDER BY stat_date DESC";
+
+    @Override
+    protected String getTableName() { return "daily_stats"; }
+
+    @Override
+    protected DailyReportRow mapRow(ResultSet rs) throws SQLException {
+        int checkIns = rs.getInt("check_ins");
+        BigDecimal revenue = rs.getBigDecimal("revenue");
+        return new DailyReportRow(
+            rs.getDate("stat_date").toLocalDate(),
+            checkIns,
+            checkIns,
+            rs.getInt("check_outs"),
+            revenue != null ? revenue : BigDecimal.ZERO
+        );
+    }
+
+    /**
+     * Baris harian untuk tanggal dalam [from, to] yang punya check-in atau check-out, terbaru di atas
+     */
+    public List<DailyReportRow> findDailyRows(LocalDate from, LocalDate to) throws SQLException {
+        return query(DAILY_SQL, Date.valueOf(from), Date.valueOf(to));
+    }
+
+    /**
+     * Isi ulang seluruh rollup dari tabel bookings
+     *
+     * @return jumlah baris daily_stats yang ditulis
+     */
+    public int rebuild() throws SQLException {
+        return db.inTransaction(conn -> {
+            // Trigger rollup di transaksi booking lain menunggu sampai rebuild selesai
+            execute("LOCK TABLE daily_stats IN EXCLUSIVE MODE");
+            execute("DELETE FROM daily_stats");
+            return withStatement(
+                "SELECT refresh_daily_stats(NULL, MIN(check_in_date), MAX(check_out_date)) FROM bookings", false, stmt -> {
+                try (ResultSet rs = stmt.executeQuery()) {
+                    return rs.next() ? rs.getInt(1) : 0;
+                }
+            });
+        });
+    }
+}
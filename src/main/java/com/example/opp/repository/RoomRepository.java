@@ -2,15 +2,23 @@ package com.example.opp.repository;
 
 import com.example.opp.model.Room;
 import com.example.opp.model.RoomStatus;
+import com.example.opp.model.RoomStatusSummary;
 
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 public class RoomRepository extends BaseRepository<Room, Long> {
 
+    private static final String INSERT_SQL =
+        "INSERT INTO rooms (room_number, room_type_id, floor, status, amenities) VALUES (?, ?, ?, ?, ?)";
+
     @Override
     protected String getTableName() { return "rooms"; }
 
@@ -37,6 +45,10 @@ public class RoomRepository extends BaseRepository<Room, Long> {
         return super.findById("id", id);
     }
 
+    public Map<Long, Room> findAllByIds(Collection<Long> ids) throws SQLException {
+        return super.findAllByIds("id", ids);
+    }
+
     public Optional<Room> findByRoomNumber(String roomNumber) throws SQLException {
         return queryOne("SELECT * FROM rooms WHERE room_number = ?", roomNumber);
     }
@@ -54,14 +66,14 @@ public class RoomRepository extends BaseRepository<Room, Long> {
     }
 
     public long save(Room room) throws SQLException {
-        return insert(
-            "INSERT INTO rooms (room_number, room_type_id, floor, status, amenities) VALUES (?, ?, ?, ?, ?)",
-            room.getRoomNumber(),
-            room.getRoomTypeId(),
-            room.getFloor(),
-            room.getStatus().name(),
-            room.getAmenities()
-        );
+        return insert(INSERT_SQL, insertParameters(room));
+    }
+
+    /**
+     * Insert semua kamar dalam satu batch; id hasil generate dikembalikan sesuai urutan list
+     */
+    public List<Long> saveAll(List<Room> rooms) throws SQLException {
+        return batchInsert(INSERT_SQL, rooms, RoomRepository::insertParameters);
     }
 
     public int updateStatus(Long id, RoomStatus status) throws SQLException {
@@ -85,15 +97,51 @@ public class RoomRepository extends BaseRepository<Room, Long> {
     }
 
     public int countByStatus(RoomStatus status) throws SQLException {
-        return db.executeWithConnection(conn -> {
-            var stmt = conn.prepareStatement("SELECT COUNT(*) FROM rooms WHERE status = ?");
+        return withStatement("SELECT COUNT(*) FROM rooms WHERE status = ?", false, stmt -> {
             stmt.setString(1, status.name());
-            var rs = stmt.executeQuery();
-            return rs.next() ? rs.getInt(1) : 0;
+            try (var rs = stmt.executeQuery()) {
+                return rs.next() ? rs.getInt(1) : 0;
+            }
+        });
+    }
+
+    /**
+     * Semua hitungan status kamar per tipe dalam satu query GROUP BY
+     */
+    public RoomStatusSummary getStatusSummary() throws SQLException {
+        return withStatement(
+            "SELECT rt.id, rt.name, r.status, COUNT(*) AS total FROM rooms r " +
+            "JOIN room_types rt ON rt.id = r.room_type_id " +
+            "GROUP BY rt.id, rt.name, r.status ORDER BY rt.name", false, stmt -> {
+            Map<Long, String> names = new LinkedHashMap<>();
+            Map<Long, int[]> counts = new LinkedHashMap<>();
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    long typeId = rs.getLong("id");
+                    names.putIfAbsent(typeId, rs.getString("name"));
+                    int[] typeCounts = counts.computeIfAbsent(typeId, k -> new int[RoomStatus.values().length]);
+                    typeCounts[RoomStatus.valueOf(rs.getString("status")).ordinal()] = rs.getInt("total");
+                }
+            }
+
+            List<RoomStatusSummary.TypeCounts> types = new ArrayList<>();
+            counts.forEach((typeId, typeCounts) ->
+                types.add(new RoomStatusSummary.TypeCounts(typeId, names.get(typeId), typeCounts)));
+            return new RoomStatusSummary(types);
         });
     }
 
     public List<Room> findAll() throws SQLException {
         return super.findAll();
     }
+
+    private static Object[] insertParameters(Room room) {
+        return new Object[] {
+            room.getRoomNumber(),
+            room.getRoomTypeId(),
+            room.getFloor(),
+            room.getStatus().name(),
+            room.getAmenities()
+        };
+    }
 }
@@ -5,10 +5,16 @@ import com.example.opp.model.RoomType;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Timestamp;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 public class RoomTypeRepository extends BaseRepository<RoomType, Long> {
 
+    private static final String INSERT_SQL =
+        "INSERT INTO room_types (name, description, base_price, capacity) VALUES (?, ?, ?, ?)";
+
     @Override
     protected String getTableName() { return "room_types"; }
 
@@ -32,18 +38,23 @@ public class RoomTypeRepository extends BaseRepository<RoomType, Long> {
         return super.findById("id", id);
     }
 
+    public Map<Long, RoomType> findAllByIds(Collection<Long> ids) throws SQLException {
+        return super.findAllByIds("id", ids);
+    }
+
     public Optional<RoomType> findByName(String name) throws SQLException {
         return queryOne("SELECT * FROM room_types WHERE name = ?", name);
     }
 
     public long save(RoomType type) throws SQLException {
-        return insert(
-            "INSERT INTO room_types (name, description, base_price, capacity) VALUES (?, ?, ?, ?)",
-            type.getName(),
-            type.getDescription(),
-            type.getBasePrice(),
-            type.getCapacity()
-        );
+        return insert(INSERT_SQL, insertParameters(type));
+    }
+
+    /**
+     * Insert semua tipe kamar dalam satu batch; id hasil generate dikembalikan sesuai urutan list
+     */
+    public List<Long> saveAll(List<RoomType> types) throws SQLException {
+        return batchInsert(INSERT_SQL, types, RoomTypeRepository::insertParameters);
     }
 
     public int update(RoomType type) throws SQLException {
@@ -64,4 +75,13 @@ public class RoomTypeRepository extends BaseRepository<RoomType, Long> {
     public java.util.List<RoomType> findAll() throws SQLException {
         return super.findAll();
     }
+
+    private static Object[] insertParameters(RoomType type) {
+        return new Object[] {
+            type.getName(),
+            type.getDescription(),
+            type.getBasePrice(),
+            type.getCapacity()
+        };
+    }
 }
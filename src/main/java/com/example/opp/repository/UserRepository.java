@@ -10,6 +10,9 @@ import java.util.Optional;
 
 public class UserRepository extends BaseRepository<User, Long> {
 
+    private static final String INSERT_SQL =
+        "INSERT INTO users (username, password, email, full_name, role, active) VALUES (?, ?, ?, ?, ?, ?)";
+
     @Override
     protected String getTableName() {
         return "users";
@@ -56,15 +59,14 @@ public class UserRepository extends BaseRepository<User, Long> {
     }
 
     public long save(User user) throws SQLException {
-        return insert(
-            "INSERT INTO users (username, password, email, full_name, role, active) VALUES (?, ?, ?, ?, ?, ?)",
-            user.getUsername(),
-            user.getPassword(),
-            user.getEmail(),
-            user.getFullName(),
-            user.getRole().name(),
-            user.isActive()
-        );
+        return insert(INSERT_SQL, insertParameters(user));
+    }
+
+    /**
+     * Insert semua user dalam satu batch; id hasil generate dikembalikan sesuai urutan list
+     */
+    public List<Long> saveAll(List<User> users) throws SQLException {
+        return batchInsert(INSERT_SQL, users, UserRepository::insertParameters);
     }
 
     public int update(User user) throws SQLException {
@@ -97,6 +99,24 @@ public class UserRepository extends BaseRepository<User, Long> {
         return execute("UPDATE users SET password = ?, updated_at = NOW() WHERE id = ?", newPassword, id);
     }
 
+    /**
+     * User yang password-nya masih plain text (hash selalu berformat salt:hash)
+     */
+    public List<User> findWithPlainPasswords() throws SQLException {
+        return query("SELECT * FROM users WHERE password NOT LIKE '%:%'");
+    }
+
+    /**
+     * Simpan password baru banyak user dalam satu batch
+     */
+    public int updatePasswords(List<User> users) throws SQLException {
+        return batchUpdate(
+            "UPDATE users SET password = ?, updated_at = NOW() WHERE id = ?",
+            users,
+            user -> new Object[] { user.getPassword(), user.getId() }
+        );
+    }
+
     public int delete(Long id) throws SQLException {
         return execute("DELETE FROM users WHERE id = ?", id);
     }
@@ -104,4 +124,15 @@ public class UserRepository extends BaseRepository<User, Long> {
     public boolean existsByUsername(String username) throws SQLException {
         return findByUsername(username).isPresent();
     }
+
+    private static Object[] insertParameters(User user) {
+        return new Object[] {
+            user.getUsername(),
+            user.getPassword(),
+            user.getEmail(),
+            user.getFullName(),
+            user.getRole().name(),
+            user.isActive()
+        };
+    }
 }
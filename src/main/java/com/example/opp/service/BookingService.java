@@ -1,5 +1,8 @@
 package com.example.opp.service;
 
+import com.example.opp.database.ChangeEvent;
+import com.example.opp.database.ChangeListener;
+import com.example.opp.database.DatabaseManager;
 import com.example.opp.model.*;
 import com.example.opp.repository.*;
 
@@ -7,33 +10,87 @@ import java.math.BigDecimal;
 import java.sql.SQLException;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 public class BookingService {
 
     private final BookingRepository bookingRepository;
     private final RoomRepository roomRepository;
     private final GuestRepository guestRepository;
-    private final RoomTypeRepository roomTypeRepository;
+    private final RoomAvailabilityIndex availabilityIndex;
+    private final ReferenceDataCache referenceCache;
+
+    private final DatabaseManager db = DatabaseManager.getInstance();
+
+    private static final int MAX_CREATE_ATTEMPTS = 5;
+    private static final String UNIQUE_VIOLATION = "23505";
+    private static final AtomicBoolean TRACKING_CHANGES = new AtomicBoolean();
 
     public BookingService() {
         this.bookingRepository = new BookingRepository();
         this.roomRepository = new RoomRepository();
         this.guestRepository = new GuestRepository();
-        this.roomTypeRepository = new RoomTypeRepository();
+        this.availabilityIndex = RoomAvailabilityIndex.getInstance();
+        this.referenceCache = ReferenceDataCache.getInstance();
     }
 
-    public Booking createBooking(Long guestId, Long roomId, LocalDate checkIn, LocalDate checkOut, Long createdBy) throws SQLException {
-        if (!bookingRepository.isRoomAvailable(roomId, checkIn, checkOut)) {
-            throw new IllegalStateException("Room is not available for selected dates");
-        }
+    /**
+     * Memuat index ketersediaan kamar dari database; dipanggil saat startup
+     */
+    public void loadAvailabilityIndex() throws SQLException {
+        availabilityIndex.load(bookingRepository.findBlockingBookings());
+    }
 
-        Room room = roomRepository.findById(roomId)
+    /**
+     * Sinkronkan index ketersediaan dengan booking yang ditulis client lain atau web;
+     * cukup didaftarkan sekali per aplikasi
+     */
+    public void trackRemoteChanges() {
+        if (!TRACKING_CHANGES.compareAndSet(false, true)) return;
+        db.addChangeListener(new ChangeListener() {
+            @Override
+            public void onChange(ChangeEvent event) {
+                if (!event.isFor("bookings")) return;
+                db.supplyAsync(() -> {
+                    Optional<Booking> booking = bookingRepository.findById(event.id());
+                    if (booking.isPresent()) {
+                        availabilityIndex.put(booking.get());
+                    } else {
+                        availabilityIndex.remove(event.id());
+                    }
+                    return null;
+                }).exceptionally(e -> {
+                    System.err.println("Failed to sync booking " + event.id() + ": " + e.getMessage());
+                    return null;
+                });
+            }
+
+            @Override
+            public void onResync() {
+                db.supplyAsync(() -> {
+                    loadAvailabilityIndex();
+                    return null;
+                }).exceptionally(e -> {
+                    System.err.println("Failed to reload availability index: " + e.getMessage());
+                    return null;
+                });
+            }
+        });
+    }
+
+    public Booking createBooking(Long guestId, Long roomId, LocalDate checkIn, LocalDate checkOut, Long createdBy) throws SQLException {
+        Room room = referenceCache.getRoom(roomId)
             .orElseThrow(() -> new IllegalArgumentException("Room not found"));
 
-        RoomType roomType = roomTypeRepository.findById(room.getRoomTypeId())
+        RoomType roomType = referenceCache.getRoomType(room.getRoomTypeId())
             .orElseThrow(() -> new IllegalArgumentException("Room type not found"));
 
         Booking booking = new Booking();
@@ -47,122 +104,138 @@ public class BookingService {
         booking.setCreatedBy(createdBy);
         booking.calculateTotals();
 
-        long id = bookingRepository.save(booking);
-        booking.setId(id);
-
-        if (checkIn.equals(LocalDate.now())) {
-            roomRepository.updateStatus(roomId, RoomStatus.RESERVED);
+        long id = saveWithRetry(booking);
+        if (id < 0) {
+            throw new IllegalStateException("Room is not available for selected dates");
         }
+        booking.setId(id);
+        availabilityIndex.put(booking);
 
         return booking;
     }
 
     public boolean checkIn(Long bookingId) throws SQLException {
-        Optional<Booking> bookingOpt = bookingRepository.findById(bookingId);
-        if (bookingOpt.isEmpty()) return false;
-
-        Booking booking = bookingOpt.get();
-        if (booking.getStatus() != BookingStatus.CONFIRMED && booking.getStatus() != BookingStatus.PENDING) {
-            return false;
-        }
-
-        bookingRepository.checkIn(bookingId);
-        roomRepository.updateStatus(booking.getRoomId(), RoomStatus.OCCUPIED);
-        return true;
+        return db.inTransaction(conn -> {
+            Optional<Booking> bookingOpt = bookingRepository.findByIdForUpdate(bookingId);
+            if (bookingOpt.isEmpty()) return false;
+
+            Booking booking = bookingOpt.get();
+            if (booking.getStatus() != BookingStatus.CONFIRMED && booking.getStatus() != BookingStatus.PENDING) {
+                return false;
+            }
+
+            bookingRepository.checkIn(bookingId);
+            roomRepository.updateStatus(booking.getRoomId(), RoomStatus.OCCUPIED);
+            referenceCache.invalidateRoom(booking.getRoomId());
+            return true;
+        });
     }
 
     public boolean checkOut(Long bookingId) throws SQLException {
-        Optional<Booking> bookingOpt = bookingRepository.findById(bookingId);
-        if (bookingOpt.isEmpty()) return false;
+        boolean checkedOut = db.inTransaction(conn -> {
+            Optional<Booking> bookingOpt = bookingRepository.findByIdForUpdate(bookingId);
+            if (bookingOpt.isEmpty()) return false;
 
-        Booking booking = bookingOpt.get();
-        if (booking.getStatus() != BookingStatus.CHECKED_IN) {
-            return false;
-        }
+            Booking booking = bookingOpt.get();
+            if (booking.getStatus() != BookingStatus.CHECKED_IN) {
+                return false;
+            }
 
-        bookingRepository.checkOut(bookingId);
-        roomRepository.updateStatus(booking.getRoomId(), RoomStatus.AVAILABLE);
-        return true;
+            bookingRepository.checkOut(bookingId);
+            roomRepository.updateStatus(booking.getRoomId(), RoomStatus.AVAILABLE);
+            referenceCache.invalidateRoom(booking.getRoomId());
+            return true;
+        });
+        if (checkedOut) {
+            availabilityIndex.remove(bookingId);
+        }
+        return checkedOut;
     }
 
     public boolean confirmBooking(Long bookingId) throws SQLException {
-        Optional<Booking> bookingOpt = bookingRepository.findById(bookingId);
-        if (bookingOpt.isEmpty()) return false;
+        return db.inTransaction(conn -> {
+            Optional<Booking> bookingOpt = bookingRepository.findByIdForUpdate(bookingId);
+            if (bookingOpt.isEmpty()) return false;
 
-        Booking booking = bookingOpt.get();
-        if (booking.getStatus() != BookingStatus.PENDING) {
-            return false;
-        }
+            Booking booking = bookingOpt.get();
+            if (booking.getStatus() != BookingStatus.PENDING) {
+                return false;
+            }
 
-        bookingRepository.updateStatus(bookingId, BookingStatus.CONFIRMED);
-        
-        // Update room status to RESERVED if check-in is today
-        if (booking.getCheckInDate().equals(LocalDate.now())) {
-            roomRepository.updateStatus(booking.getRoomId(), RoomStatus.RESERVED);
-        }
+            bookingRepository.updateStatus(bookingId, BookingStatus.CONFIRMED);
+
+            // Update room status to RESERVED if check-in is today
+            if (booking.getCheckInDate().equals(LocalDate.now())) {
+                roomRepository.updateStatus(booking.getRoomId(), RoomStatus.RESERVED);
+                referenceCache.invalidateRoom(booking.getRoomId());
+            }
 
-        return true;
+            return true;
+        });
     }
 
     public boolean cancelBooking(Long bookingId) throws SQLException {
-        Optional<Booking> bookingOpt = bookingRepository.findById(bookingId);
-        if (bookingOpt.isEmpty()) return false;
-
-        Booking booking = bookingOpt.get();
-        if (booking.getStatus() == BookingStatus.CHECKED_OUT || booking.getStatus() == BookingStatus.CANCELLED) {
-            return false;
+        boolean cancelled = db.inTransaction(conn -> {
+            Optional<Booking> bookingOpt = bookingRepository.findByIdForUpdate(bookingId);
+            if (bookingOpt.isEmpty()) return false;
+
+            Booking booking = bookingOpt.get();
+            if (booking.getStatus() == BookingStatus.CHECKED_OUT || booking.getStatus() == BookingStatus.CANCELLED) {
+                return false;
+            }
+
+            bookingRepository.updateStatus(bookingId, BookingStatus.CANCELLED);
+
+            if (booking.getStatus() == BookingStatus.CHECKED_IN) {
+                roomRepository.updateStatus(booking.getRoomId(), RoomStatus.AVAILABLE);
+                referenceCache.invalidateRoom(booking.getRoomId());
+            }
+
+            return true;
+        });
+        if (cancelled) {
+            availabilityIndex.remove(bookingId);
         }
-
-        bookingRepository.updateStatus(bookingId, BookingStatus.CANCELLED);
-
-        if (booking.getStatus() == BookingStatus.CHECKED_IN) {
-            roomRepository.updateStatus(booking.getRoomId(), RoomStatus.AVAILABLE);
-        }
-
-        return true;
+        return cancelled;
     }
 
     public List<Booking> getActiveBookings() throws SQLException {
-        List<Booking> bookings = bookingRepository.findActiveBookings();
-        for (Booking booking : bookings) {
-            loadRelations(booking);
-        }
-        return bookings;
+        return bookingRepository.findActiveBookingsWithDetails();
+    }
+
+    /**
+     * Halaman daftar booking berbasis keyset; lihat {@link BookingRepository#findPageWithDetails}
+     */
+    public List<Booking> getBookingPage(BookingFilter filter, Booking anchor, boolean older, int limit)
+            throws SQLException {
+        return bookingRepository.findPageWithDetails(filter, anchor, older, limit);
     }
 
     public List<Booking> getTodayCheckIns() throws SQLException {
-        List<Booking> bookings = bookingRepository.findTodayCheckIns();
-        for (Booking booking : bookings) {
-            loadRelations(booking);
-        }
-        return bookings;
+        return bookingRepository.findTodayCheckInsWithDetails();
     }
 
     public List<Booking> getTodayCheckOuts() throws SQLException {
-        List<Booking> bookings = bookingRepository.findTodayCheckOuts();
-        for (Booking booking : bookings) {
-            loadRelations(booking);
-        }
-        return bookings;
+        return bookingRepository.findTodayCheckOutsWithDetails();
     }
 
     public Optional<Booking> getBookingById(Long id) throws SQLException {
         Optional<Booking> booking = bookingRepository.findById(id);
-        booking.ifPresent(this::loadRelations);
+        booking.ifPresent(b -> loadRelations(List.of(b), new IdentityMap()));
         return booking;
     }
 
     public Optional<Booking> getBookingByCode(String code) throws SQLException {
         Optional<Booking> booking = bookingRepository.findByBookingCode(code);
-        booking.ifPresent(this::loadRelations);
+        booking.ifPresent(b -> loadRelations(List.of(b), new IdentityMap()));
         return booking;
     }
 
     public BigDecimal calculateTotal(Long roomId, LocalDate checkIn, LocalDate checkOut) throws SQLException {
-        Room room = roomRepository.findById(roomId)
+        Room room = referenceCache.getRoom(roomId)
             .orElseThrow(() -> new IllegalArgumentException("Room not found"));
 
-        RoomType roomType = roomTypeRepository.findById(room.getRoomTypeId())
+        RoomType roomType = referenceCache.getRoomType(room.getRoomTypeId())
             .orElseThrow(() -> new IllegalArgumentException("Room type not found"));
 
         long nights = java.time.temporal.ChronoUnit.DAYS.between(checkIn, checkOut);
@@ -170,9 +243,84 @@ public class BookingService {
     }
 
     public boolean isRoomAvailable(Long roomId, LocalDate checkIn, LocalDate checkOut) throws SQLException {
+        if (availabilityIndex.isLoaded()) {
+            return availabilityIndex.isAvailable(roomId, checkIn, checkOut);
+        }
         return bookingRepository.isRoomAvailable(roomId, checkIn, checkOut);
     }
 
+    /**
+     * Kamar yang bebas untuk rentang [checkIn, checkOut), kecuali kamar yang sedang dalam perbaikan
+     */
+    public List<Room> getRoomsAvailableFor(LocalDate checkIn, LocalDate checkOut) throws SQLException {
+        if (!availabilityIndex.isLoaded()) {
+            loadAvailabilityIndex();
+        }
+
+        List<Room> rooms = roomRepository.findAll().stream()
+            .filter(room -> room.getStatus() != RoomStatus.MAINTENANCE)
+            .toList();
+        Set<Long> free = new HashSet<>(availabilityIndex.findAvailableRooms(
+            rooms.stream().map(Room::getId).toList(), checkIn, checkOut));
+
+        List<Room> available = rooms.stream()
+            .filter(room -> free.contains(room.getId()))
+            .sorted(Comparator.comparing(Room::getRoomNumber))
+            .toList();
+        return referenceCache.withRoomTypes(available, new IdentityMap());
+    }
+
+    /**
+     * Jumlah kamar bebas per malam untuk [from, to), dihitung dari kalender hunian
+     */
+    public int[] getFreeRoomsPerNight(LocalDate from, LocalDate to) throws SQLException {
+        if (!availabilityIndex.isLoaded()) {
+            loadAvailabilityIndex();
+        }
+        List<Long> roomIds = roomRepository.findAll().stream()
+            .filter(room -> room.getStatus() != RoomStatus.MAINTENANCE)
+            .map(Room::getId)
+            .toList();
+        return availabilityIndex.countFreeRoomsPerNight(roomIds, from, to);
+    }
+
+    /**
+     * Simpan booking dan status kamar dalam satu transaksi; bentrok booking_code dicoba ulang dengan kode baru
+     * (deadlock dan serialization failure sudah dicoba ulang oleh inTransaction). Mengembalikan -1 jika kamar sudah terisi.
+     */
+    private long saveWithRetry(Booking booking) throws SQLException {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return db.inTransaction(conn -> {
+                    long id = bookingRepository.saveIfAvailable(booking);
+                    if (id < 0) return id;
+
+                    if (booking.getCheckInDate().equals(LocalDate.now())) {
+                        roomRepository.updateStatus(booking.getRoomId(), RoomStatus.RESERVED);
+                        referenceCache.invalidateRoom(booking.getRoomId());
+                    }
+                    return id;
+                });
+            } catch (SQLException e) {
+                if (!UNIQUE_VIOLATION.equals(e.getSQLState()) || attempt >= MAX_CREATE_ATTEMPTS) {
+                    throw e;
+                }
+                booking.setBookingCode(generateBookingCode());
+                backoff(attempt);
+            }
+        }
+    }
+
+    private static void backoff(int attempt) throws SQLException {
+        long delay = (10L << attempt) + ThreadLocalRandom.current().nextLong(10);
+        try {
+            Thread.sleep(delay);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while retrying booking", e);
+        }
+    }
+
     private String generateBookingCode() {
         String date = LocalDate.now().format(DateTimeFormatter.ofPattern("yyyyMMdd"));
         int random = ThreadLocalRandom.current().nextInt(1000, 9999);
@@ -180,24 +328,28 @@ public class BookingService {
     }
 
     public List<Booking> getAllBookings() throws SQLException {
-        List<Booking> bookings = bookingRepository.findAll();
-        for (Booking booking : bookings) {
-            loadRelations(booking);
-        }
-        return bookings;
+        return bookingRepository.findAllWithDetails();
     }
 
-    private void loadRelations(Booking booking) {
+    /**
+     * Satu query batch untuk guest; room dan room type diambil lewat ReferenceDataCache.
+     * Guest dan salinan Room dicatat di {@code identityMap}, jadi dalam satu load layar setiap id
+     * hanya punya satu instance, termasuk antar pemanggilan
+     */
+    private void loadRelations(List<Booking> bookings, IdentityMap identityMap) {
+        if (bookings.isEmpty()) return;
         try {
-            guestRepository.findById(booking.getGuestId()).ifPresent(booking::setGuest);
-            roomRepository.findById(booking.getRoomId()).ifPresent(room -> {
-                booking.setRoom(room);
-                try {
-                    roomTypeRepository.findById(room.getRoomTypeId()).ifPresent(room::setRoomType);
-                } catch (SQLException e) {
-                    // Room type is optional for display
-                }
-            });
+            Map<Long, Guest> guests = guestRepository.findAllByIds(
+                bookings.stream().map(Booking::getGuestId).toList(), identityMap);
+            Map<Long, Room> rooms = new HashMap<>();
+            for (Room room : referenceCache.withRoomTypes(referenceCache.getRooms(
+                    bookings.stream().map(Booking::getRoomId).toList()).values(), identityMap)) {
+                rooms.put(room.getId(), room);
+            }
+            for (Booking booking : bookings) {
+                booking.setGuest(guests.get(booking.getGuestId()));
+                booking.setRoom(rooms.get(booking.getRoomId()));
+            }
         } catch (SQLException e) {
             // Relations are optional for display
         }
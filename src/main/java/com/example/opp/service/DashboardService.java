@@ -0,0 +1,126 @@
+package com.example.opp.service;
+
+import com.example.opp.database.DatabaseManager;
+import com.example.opp.database.LatencyHistogram;
+import com.example.opp.model.Booking;
+import com.example.opp.model.DashboardSnapshot;
+import com.example.opp.model.RoomStatusSummary;
+import com.example.opp.repository.BookingRepository;
+import com.example.opp.repository.RoomRepository;
+
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Menyusun {@link DashboardSnapshot}: ringkasan status kamar, check-in dan check-out hari ini
+ * serta kamar bebas per malam (dari kalender hunian) diambil paralel di executor async database
+ * lalu digabung jadi satu hasil
+ */
+public class DashboardService {
+
+    private static final String ROOMS = "rooms";
+    private static final String CHECK_INS = "checkIns";
+    private static final String CHECK_OUTS = "checkOuts";
+    private static final String AVAILABILITY = "availability";
+    private static final String TOTAL = "total";
+
+    // Jumlah malam ke depan yang ditampilkan di kartu kamar tersedia
+    public static final int FORECAST_NIGHTS = 7;
+
+    // Dibagi semua instance supaya statistiknya mencakup setiap kali dashboard dibuka
+    private static final Map<String, LatencyHistogram> SECTION_LATENCY = new LinkedHashMap<>();
+    static {
+        for (String section : List.of(ROOMS, CHECK_INS, CHECK_OUTS, AVAILABILITY, TOTAL)) {
+            SECTION_LATENCY.put(section, new LatencyHistogram());
+        }
+    }
+
+    private final DatabaseManager db = DatabaseManager.getInstance();
+    private final RoomRepository roomRepository;
+    private final BookingRepository bookingRepository;
+    private final BookingService bookingService;
+
+    public DashboardService() {
+        this.roomRepository = new RoomRepository();
+        this.bookingRepository = new BookingRepository();
+        this.bookingService = new BookingService();
+    }
+
+    /**
+     * Semua bagian dijalankan bersamaan. Jika satu gagal, bagian lain dibatalkan dan future
+     * gagal dengan error tersebut; membatalkan future hasil juga membatalkan semua bagian.
+     */
+    public CompletableFuture<DashboardSnapshot> loadSnapshot() {
+        LocalDate today = LocalDate.now();
+        long start = System.nanoTime();
+
+        CompletableFuture<Timed<RoomStatusSummary>> rooms = timed(ROOMS, roomRepository::getStatusSummary);
+        CompletableFuture<Timed<List<Booking>>> checkIns = timed(CHECK_INS, bookingRepository::findTodayCheckInsWithDetails);
+        CompletableFuture<Timed<List<Booking>>> checkOuts = timed(CHECK_OUTS, bookingRepository::findTodayCheckOutsWithDetails);
+        CompletableFuture<Timed<int[]>> availability = timed(AVAILABILITY,
+            () -> bookingService.getFreeRoomsPerNight(today, today.plusDays(FORECAST_NIGHTS)));
+        List<CompletableFuture<?>> sections = List.of(rooms, checkIns, checkOuts, availability);
+
+        for (CompletableFuture<?> section : sections) {
+            section.whenComplete((result, error) -> {
+                if (error != null) cancelAll(sections);
+            });
+        }
+
+        CompletableFuture<DashboardSnapshot> snapshot = CompletableFuture
+            .allOf(rooms, checkIns, checkOuts, availability)
+            .thenApply(ignored -> {
+                long total = System.nanoTime() - start;
+                SECTION_LATENCY.get(TOTAL).record(total);
+                return new DashboardSnapshot(
+                    today,
+                    rooms.join().value(),
+                    checkIns.join().value(),
+                    checkOuts.join().value(),
+                    availability.join().value(),
+                    new DashboardSnapshot.Timings(
+                        rooms.join().millis(),
+                        checkIns.join().millis(),
+                        checkOuts.join().millis(),
+                        availability.join().millis(),
+                        total / 1_000_000
+                    )
+                );
+            });
+        snapshot.whenComplete((result, error) -> {
+            if (snapshot.isCancelled()) cancelAll(sections);
+        });
+        return snapshot;
+    }
+
+    /**
+     * Statistik latensi per bagian dashboard sejak aplikasi berjalan
+     */
+    public static Map<String, LatencyHistogram.Snapshot> getSectionStats() {
+        Map<String, LatencyHistogram.Snapshot> stats = new LinkedHashMap<>();
+        SECTION_LATENCY.forEach((section, histogram) -> stats.put(section, histogram.snapshot()));
+        return stats;
+    }
+
+    private <T> CompletableFuture<Timed<T>> timed(String section, DatabaseManager.SqlSupplier<T> work) {
+        return db.supplyAsync(() -> {
+            long start = System.nanoTime();
+            T value = work.get();
+            long elapsed = System.nanoTime() - start;
+            SECTION_LATENCY.get(section).record(elapsed);
+            return new Timed<>(value, elapsed / 1_000_000);
+        });
+    }
+
+    private static void cancelAll(List<CompletableFuture<?>> sections) {
+        // Bagian yang belum mulai dilewati; query yang sudah berjalan dibiarkan selesai
+        for (CompletableFuture<?> section : sections) {
+            section.cancel(false);
+        }
+    }
+
+    private record Timed<T>(T value, long millis) {}
+}
@@ -0,0 +1,221 @@
+package com.example.opp.service;
+
+import com.example.opp.database.DatabaseManager;
+import javafx.application.Platform;
+import javafx.geometry.Pos;
+import javafx.scene.Node;
+import javafx.scene.control.Label;
+import javafx.scene.control.ProgressIndicator;
+import javafx.scene.control.TableView;
+import javafx.scene.layout.VBox;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Memuat data dari database di luar JavaFX application thread lewat executor async DatabaseManager.
+ * Hasil dikirim balik lewat Platform.runLater, load dengan key yang sama digabung
+ * selama query-nya masih berjalan, dan semua load milik satu controller bisa
+ * dibatalkan sekaligus saat user pindah halaman.
+ */
+public final class DataLoader {
+
+    private static final String EMPTY_PLACEHOLDER = "dataLoader.emptyPlaceholder";
+
+    private static DataLoader instance;
+
+    private final DatabaseManager db = DatabaseManager.getInstance();
+    private final Map<String, Pending<?>> inFlight = new HashMap<>();
+    private final Map<Object, List<Subscription>> owners = new HashMap<>();
+
+    private DataLoader() {
+    }
+
+    public static synchronized DataLoader getInstance() {
+        if (instance == null) {
+            instance = new DataLoader();
+        }
+        return instance;
+    }
+
+    /**
+     * Jalankan {@code work} di background; {@code onSuccess}/{@code onError} dipanggil di FX thread
+     * kecuali load sudah dibatalkan. Jika load dengan {@code key} yang sama masih berjalan,
+     * pemanggil ikut menunggu hasil query tersebut.
+     */
+    public <T> Subscription load(Object owner, String key, DatabaseManager.SqlSupplier<T> work,
+                                 Consumer<T> onSuccess, Consumer<Exception> onError) {
+        return loadAsync(owner, key, () -> db.supplyAsync(work), onSuccess, onError);
+    }
+
+    /**
+     * Sama seperti {@link #load}, untuk pekerjaan yang sudah menghasilkan future sendiri
+     * (misalnya beberapa query paralel); future itu dibatalkan jika semua pemanggil batal
+     */
+    public <T> Subscription loadAsync(Object owner, String key, Supplier<CompletableFuture<T>> work,
+                                      Consumer<T> onSuccess, Consumer<Exception> onError) {
+        Subscription subscription;
+        CompletableFuture<T> future;
+        synchronized (this) {
+            Pending<T> pending = pending(key, work);
+            pending.subscribers++;
+            future = pending.future;
+            subscription = new Subscription(owner, key, pending);
+            owners.computeIfAbsent(owner, k -> new ArrayList<>()).add(subscription);
+        }
+
+        future.whenComplete((result, error) -> {
+            synchronized (this) {
+                inFlight.remove(key, subscription.pending);
+                forget(subscription);
+            }
+            Platform.runLater(() -> {
+                if (subscription.cancelled) return;
+                if (error == null) {
+                    onSuccess.accept(result);
+                } else {
+                    onError.accept(unwrap(error));
+                }
+            });
+        });
+        return subscription;
+    }
+
+    /**
+     * Jalankan penulisan (check-in, booking baru, ...) di background. Berbeda dengan {@link #load},
+     * tidak digabung dan tidak terikat ke controller, jadi penulisan yang sudah dikonfirmasi user
+     * tetap selesai walau user pindah halaman. Callback dipanggil di FX thread.
+     */
+    public <T> CompletableFuture<T> submit(DatabaseManager.SqlSupplier<T> work,
+                                           Consumer<T> onSuccess, Consumer<Exception> onError) {
+        CompletableFuture<T> future = db.supplyAsync(work);
+        future.whenComplete((result, error) -> Platform.runLater(() -> {
+            if (error == null) {
+                onSuccess.accept(result);
+            } else {
+                onError.accept(unwrap(error));
+            }
+        }));
+        return future;
+    }
+
+    /**
+     * Batalkan semua load milik {@code owner}; query yang belum mulai dan tidak dipakai
+     * pemanggil lain tidak dijalankan sama sekali
+     */
+    public synchronized void cancel(Object owner) {
+        List<Subscription> subscriptions = owners.remove(owner);
+        if (subscriptions == null) return;
+        for (Subscription subscription : subscriptions) {
+            release(subscription);
+        }
+    }
+
+    public synchronized boolean isLoading(String key) {
+        return inFlight.containsKey(key);
+    }
+
+    /**
+     * Ganti placeholder tabel dengan indikator loading; placeholder asli dari FXML disimpan
+     * di properties tabel dan dipasang lagi oleh {@link #loaded}
+     */
+    public static void loading(TableView<?> table, String message) {
+        table.getProperties().putIfAbsent(EMPTY_PLACEHOLDER, table.getPlaceholder());
+        table.setPlaceholder(placeholder(message));
+    }
+
+    public static void loaded(TableView<?> table) {
+        Object original = table.getProperties().remove(EMPTY_PLACEHOLDER);
+        table.setPlaceholder(original instanceof Node node ? node : null);
+    }
+
+    /**
+     * Placeholder tabel/daftar selama data sedang dimuat
+     */
+    public static Node placeholder(String message) {
+        ProgressIndicator progress = new ProgressIndicator();
+        progress.setMaxSize(32, 32);
+        Label label = new Label(message);
+        label.getStyleClass().add("empty-state");
+        VBox box = new VBox(8, progress, label);
+        box.setAlignment(Pos.CENTER);
+        return box;
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> Pending<T> pending(String key, Supplier<CompletableFuture<T>> work) {
+        Pending<T> pending = (Pending<T>) inFlight.get(key);
+        if (pending == null) {
+            pending = new Pending<>(work.get());
+            inFlight.put(key, pending);
+        }
+        return pending;
+    }
+
+    private void release(Subscription subscription) {
+        if (subscription.cancelled) return;
+        subscription.cancelled = true;
+        Pending<?> pending = subscription.pending;
+        if (--pending.subscribers == 0 && !pending.future.isDone()) {
+            // Task yang masih antre dilewati; query JDBC yang sudah jalan dibiarkan selesai
+            pending.future.cancel(false);
+            inFlight.remove(subscription.key, pending);
+        }
+    }
+
+    private void forget(Subscription subscription) {
+        List<Subscription> subscriptions = owners.get(subscription.owner);
+        if (subscriptions != null) {
+            subscriptions.remove(subscription);
+            if (subscriptions.isEmpty()) {
+                owners.remove(subscription.owner);
+            }
+        }
+    }
+
+    private static Exception unwrap(Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null
+            ? error.getCause()
+            : error;
+        return cause instanceof Exception e ? e : new RuntimeException(cause);
+    }
+
+    private static final class Pending<T> {
+        final CompletableFuture<T> future;
+        int subscribers;
+
+        Pending(CompletableFuture<T> future) {
+            this.future = future;
+        }
+    }
+
+    public final class Subscription {
+        private final Object owner;
+        private final String key;
+        private final Pending<?> pending;
+        private volatile boolean cancelled;
+
+        private Subscription(Object owner, String key, Pending<?> pending) {
+            this.owner = owner;
+            this.key = key;
+            this.pending = pending;
+        }
+
+        public void cancel() {
+            synchronized (DataLoader.this) {
+                release(this);
+                forget(this);
+            }
+        }
+
+        public boolean isCancelled() {
+            return cancelled;
+        }
+    }
+}
@@ -27,8 +27,8 @@ public class GuestService {
         return guestRepository.findByIdNumber(idNumber);
     }
 
-    public List<Guest> searchGuests(String name) throws SQLException {
-        return guestRepository.searchByName(name);
+    public List<Guest> searchGuests(String text) throws SQLException {
+        return guestRepository.search(text, 50);
     }
 
     public Guest createOrGetGuest(String idNumber, String fullName, String phone, String email) throws SQLException {
@@ -0,0 +1,197 @@
+package com.example.opp.service;
+
+import com.example.opp.config.AppConfig;
+import javafx.scene.image.Image;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Cache gambar bersama untuk foto tipe kamar. Gambar hasil decode disimpan per URL dan ukuran
+ * target dalam LRU yang dibatasi total byte piksel; beberapa kartu yang meminta gambar yang sama
+ * menunggu satu load yang sama. File asli hasil download disimpan di disk supaya start berikutnya
+ * tidak perlu download ulang.
+ */
+public final class ImageCache {
+
+    private static final int TIMEOUT_MS = 10_000;
+
+    private static ImageCache instance;
+
+    private final WeightedLruCache<Key, Image> images;
+    private final Map<Key, CompletableFuture<Image>> inFlight = new HashMap<>();
+    private final Path diskDir;
+    private final ExecutorService executor;
+
+    private long hits;
+    private long misses;
+    private long downloads;
+
+    private ImageCache() {
+        long maxBytes = AppConfig.getInt("cache.images.max-mb", 64) * 1024L * 1024L;
+        this.images = new WeightedLruCache<>(maxBytes, ImageCache::decodedBytes);
+        this.diskDir = AppConfig.getBoolean("cache.images.disk-enabled", true)
+            ? Path.of(AppConfig.get("cache.images.dir",
+                Path.of(System.getProperty("user.home"), ".opp", "image-cache").toString()))
+            : null;
+        this.executor = newLoaderExecutor(AppConfig.getInt("cache.images.threads", 2));
+    }
+
+    public static synchronized ImageCache getInstance() {
+        if (instance == null) {
+            instance = new ImageCache();
+        }
+        return instance;
+    }
+
+    /**
+     * Gambar yang sudah ada di cache memori, atau null; dipakai supaya kartu tidak berkedip
+     * ke placeholder untuk gambar yang sudah pernah dimuat
+     */
+    public synchronized Image getIfPresent(String url, double width, double height) {
+        Image image = images.get(new Key(url, width, height));
+        if (image != null) hits++;
+        return image;
+    }
+
+    /**
+     * Muat gambar dengan ukuran target di background. Future selesai di thread loader;
+     * pemanggil dari UI harus pindah ke FX thread sendiri.
+     */
+    public synchronized CompletableFuture<Image> load(String url, double width, double height) {
+        Key key = new Key(url, width, height);
+        Image cached = images.get(key);
+        if (cached != null) {
+            hits++;
+            return CompletableFuture.completedFuture(cached);
+        }
+        CompletableFuture<Image> pending = inFlight.get(key);
+        if (pending != null) {
+            hits++;
+            return pending;
+        }
+
+        misses++;
+        CompletableFuture<Image> future = CompletableFuture.supplyAsync(() -> decode(key), executor);
+        inFlight.put(key, future);
+        future.whenComplete((image, error) -> {
+            synchronized (this) {
+                inFlight.remove(key, future);
+                if (error == null) {
+                    images.put(key, image);
+                }
+            }
+        });
+        return future;
+    }
+
+    public synchronized void invalidateAll() {
+        images.clear();
+    }
+
+    public synchronized Stats getStats() {
+        return new Stats(images.size(), images.weight(), images.maxWeight(),
+            hits, misses, images.evictions(), downloads);
+    }
+
+    private Image decode(Key key) {
+        try (InputStream in = open(key.url())) {
+            Image image = new Image(in, key.width(), key.height(), false, true);
+            if (image.isError()) {
+                // Salinan di disk mungkin rusak; hapus supaya load berikutnya download ulang
+                discard(key.url());
+                throw new IOException("Cannot decode " + key.url(), image.getException());
+            }
+            return image;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void discard(String url) throws IOException {
+        if (diskDir != null) {
+            Files.deleteIfExists(diskDir.resolve(fileName(url)));
+        }
+    }
+
+    // URL http(s) dibaca dari salinan di disk; URL lain (file:, jar:) langsung dibuka
+    private InputStream open(String url) throws IOException {
+        if (diskDir == null || !url.startsWith("http")) {
+            return new URL(url).openStream();
+        }
+        Path file = diskDir.resolve(fileName(url));
+        if (!Files.exists(file)) {
+            download(url, file);
+        }
+        return Files.newInputStream(file);
+    }
+
+    private void download(String url, Path file) throws IOException {
+        Files.createDirectories(diskDir);
+        Path tmp = Files.createTempFile(diskDir, "download-", ".tmp");
+        try {
+            URLConnection connection = new URL(url).openConnection();
+            connection.setConnectTimeout(TIMEOUT_MS);
+            connection.setReadTimeout(TIMEOUT_MS);
+            try (InputStream in = connection.getInputStream()) {
+                Files.copy(in, tmp, StandardCopyOption.REPLACE_EXISTING);
+            }
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            synchronized (this) {
+                downloads++;
+            }
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    private static String fileName(String url) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(url.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static long decodedBytes(Image image) {
+        // Gambar hasil decode disimpan sebagai BGRA 4 byte per piksel
+        return (long) image.getWidth() * (long) image.getHeight() * 4;
+    }
+
+    private static ExecutorService newLoaderExecutor(int threads) {
+        AtomicInteger counter = new AtomicInteger();
+        return Executors.newFixedThreadPool(Math.max(1, threads), r -> {
+            Thread t = new Thread(r, "image-loader-" + counter.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    private record Key(String url, double width, double height) {}
+
+    public record Stats(int images, long bytes, long maxBytes, long hits, long misses,
+                        long evictions, long downloads) {
+        @Override
+        public String toString() {
+            return String.format("images: size=%d bytes=%d/%d hits=%d misses=%d evictions=%d downloads=%d",
+                images, bytes, maxBytes, hits, misses, evictions, downloads);
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.example.opp.service;
+
+import javafx.collections.ObservableList;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Jendela baris terbatas di atas hasil query keyset yang diurutkan terbaru dulu.
+ * Halaman lebih lama ditambah di bawah dan halaman lebih baru di atas; jika jumlah baris
+ * melewati {@code maxRows}, baris di ujung seberang dibuang dan bisa dimuat ulang lewat keyset.
+ * Query halaman sebaiknya meminta {@link #fetchSize()} baris: baris ekstra hanya dipakai
+ * untuk tahu apakah masih ada halaman berikutnya.
+ */
+public final class KeysetWindow<T> {
+
+    private final ObservableList<T> rows;
+    private final int pageSize;
+    private final int maxRows;
+
+    // Baris tepat di atas jendela (null jika jendela mulai dari baris pertama)
+    private T above;
+    private boolean hasOlder;
+    private int offset;
+
+    public KeysetWindow(ObservableList<T> rows, int pageSize, int maxRows) {
+        if (pageSize <= 0 || maxRows < pageSize) {
+            throw new IllegalArgumentException("maxRows must be at least pageSize");
+        }
+        this.rows = rows;
+        this.pageSize = pageSize;
+        this.maxRows = maxRows;
+    }
+
+    public int fetchSize() {
+        return pageSize + 1;
+    }
+
+    /**
+     * Jumlah baris yang diminta untuk memuat ulang isi jendela dari {@link #above()}
+     */
+    public int reloadSize() {
+        return Math.max(rows.size(), pageSize) + 1;
+    }
+
+    /**
+     * Isi ulang jendela dari awal dengan halaman pertama (urut terbaru dulu)
+     */
+    public void reset(List<T> fetched) {
+        above = null;
+        offset = 0;
+        replace(fetched, pageSize);
+    }
+
+    /**
+     * Ganti isi jendela dengan hasil query dari {@link #above()} sebanyak {@link #reloadSize()};
+     * posisi jendela tidak berubah
+     */
+    public void reload(List<T> fetched) {
+        replace(fetched, reloadSize() - 1);
+    }
+
+    /**
+     * Tambah halaman lebih lama di bawah; mengembalikan jumlah baris yang dibuang dari atas
+     */
+    public int appendOlder(List<T> fetched) {
+        hasOlder = fetched.size() > pageSize;
+        rows.addAll(fetched.subList(0, Math.min(fetched.size(), pageSize)));
+
+        int excess = rows.size() - maxRows;
+        if (excess <= 0) return 0;
+        above = rows.get(excess - 1);
+        offset += excess;
+        rows.remove(0, excess);
+        return excess;
+    }
+
+    /**
+     * Tambah halaman lebih baru di atas; {@code fetched} urut naik dari baris terdekat dengan
+     * {@link #first()}. Mengembalikan jumlah baris yang ditambahkan.
+     */
+    public int prependNewer(List<T> fetched) {
+        int count = Math.min(fetched.size(), pageSize);
+        List<T> page = new ArrayList<>(fetched.subList(0, count));
+        Collections.reverse(page);
+        rows.addAll(0, page);
+
+        if (fetched.size() > pageSize) {
+            above = fetched.get(pageSize);
+            offset = Math.max(1, offset - count);
+        } else {
+            above = null;
+            offset = 0;
+        }
+
+        int excess = rows.size() - maxRows;
+        if (excess > 0) {
+            rows.remove(rows.size() - excess, rows.size());
+            hasOlder = true;
+        }
+        return count;
+    }
+
+    public T first() {
+        return rows.isEmpty() ? null : rows.get(0);
+    }
+
+    public T last() {
+        return rows.isEmpty() ? null : rows.get(rows.size() - 1);
+    }
+
+    public T above() {
+        return above;
+    }
+
+    public boolean hasOlder() {
+        return hasOlder;
+    }
+
+    public boolean hasNewer() {
+        return above != null;
+    }
+
+    /**
+     * Jumlah baris di atas jendela, untuk nomor urut absolut
+     */
+    public int offset() {
+        return offset;
+    }
+
+    public int pageSize() {
+        return pageSize;
+    }
+
+    private void replace(List<T> fetched, int limit) {
+        hasOlder = fetched.size() > limit;
+        rows.setAll(fetched.subList(0, Math.min(fetched.size(), limit)));
+    }
+}
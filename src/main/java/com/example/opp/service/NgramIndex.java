@@ -0,0 +1,189 @@
+package com.example.opp.service;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+/**
+ * Index substring di memori untuk pencarian cepat di daftar yang sudah dimuat.
+ * Setiap key (nama, nomor identitas, telepon, kode booking, ...) dinormalisasi sekali saat
+ * item masuk index (huruf kecil, tanpa diakritik, spasi dirapikan), lalu semua n-gram
+ * sepanjang 1 sampai 3 karakter dicatat ke posting list. Query pendek langsung dijawab
+ * posting list-nya; query yang lebih panjang memotong posting list trigram-nya lalu
+ * kandidat dicek dengan {@code contains}. Tidak thread-safe; dipakai dari FX thread.
+ */
+public final class NgramIndex<T> {
+
+    private static final int N = 3;
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern SPACES = Pattern.compile("\\s+");
+
+    private final Function<T, ?> idOf;
+    private final Function<T, List<String>> keysOf;
+    private final Map<Object, Entry<T>> entries = new HashMap<>();
+    private final Map<String, Set<Entry<T>>> postings = new HashMap<>();
+    private int nextPosition;
+
+    public NgramIndex(Function<T, ?> idOf, Function<T, List<String>> keysOf) {
+        this.idOf = idOf;
+        this.keysOf = keysOf;
+    }
+
+    /**
+     * Samakan isi index dengan {@code items}: item yang key-nya tidak berubah tidak diindex
+     * ulang, item yang hilang dihapus. Urutan hasil pencarian mengikuti urutan {@code items}.
+     */
+    public void replaceAll(Collection<T> items) {
+        Set<Object> seen = new HashSet<>();
+        int position = 0;
+        for (T item : items) {
+            seen.add(idOf.apply(item));
+            index(item, position++);
+        }
+        nextPosition = position;
+        entries.keySet().removeIf(id -> {
+            if (seen.contains(id)) return false;
+            unlink(entries.get(id));
+            return true;
+        });
+    }
+
+    /**
+     * Tambah item atau perbarui item dengan id yang sama; item baru ditaruh di akhir urutan
+     */
+    public void put(T item) {
+        Entry<T> existing = entries.get(idOf.apply(item));
+        index(item, existing != null ? existing.position : nextPosition++);
+    }
+
+    public boolean remove(Object id) {
+        Entry<T> entry = entries.remove(id);
+        if (entry == null) return false;
+        unlink(entry);
+        return true;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Item yang salah satu key-nya mengandung {@code query}; query kosong mengembalikan semua item
+     */
+    public List<T> search(String query) {
+        String needle = normalize(query);
+        List<Entry<T>> matches = new ArrayList<>();
+        if (needle.isEmpty()) {
+            matches.addAll(entries.values());
+        } else if (needle.length() <= N) {
+            matches.addAll(postings.getOrDefault(needle, Set.of()));
+        } else {
+            for (Entry<T> entry : candidates(needle)) {
+                if (entry.contains(needle)) {
+                    matches.add(entry);
+                }
+            }
+        }
+        matches.sort(Comparator.comparingInt(e -> e.position));
+        List<T> results = new ArrayList<>(matches.size());
+        for (Entry<T> entry : matches) {
+            results.add(entry.item);
+        }
+        return results;
+    }
+
+    public static String normalize(String text) {
+        if (text == null) return "";
+        String stripped = MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        return SPACES.matcher(stripped.trim()).replaceAll(" ").toLowerCase(Locale.ROOT);
+    }
+
+    private void index(T item, int position) {
+        Object id = idOf.apply(item);
+        List<String> keys = normalizeKeys(item);
+        Entry<T> existing = entries.get(id);
+        if (existing != null && existing.keys.equals(keys)) {
+            existing.item = item;
+            existing.position = position;
+            return;
+        }
+        if (existing != null) {
+            unlink(existing);
+        }
+        Entry<T> entry = new Entry<>(item, keys, position);
+        for (String gram : entry.grams) {
+            postings.computeIfAbsent(gram, g -> new HashSet<>()).add(entry);
+        }
+        entries.put(id, entry);
+    }
+
+    // Irisan posting list trigram query, dimulai dari yang paling kecil
+    private Set<Entry<T>> candidates(String needle) {
+        List<Set<Entry<T>>> lists = new ArrayList<>();
+        for (int i = 0; i + N <= needle.length(); i++) {
+            Set<Entry<T>> list = postings.get(needle.substring(i, i + N));
+            if (list == null) return Set.of();
+            lists.add(list);
+        }
+        lists.sort(Comparator.comparingInt(Set::size));
+        Set<Entry<T>> result = new HashSet<>(lists.get(0));
+        for (int i = 1; i < lists.size() && !result.isEmpty(); i++) {
+            result.retainAll(lists.get(i));
+        }
+        return result;
+    }
+
+    private List<String> normalizeKeys(T item) {
+        List<String> keys = new ArrayList<>();
+        for (String key : keysOf.apply(item)) {
+            String normalized = normalize(key);
+            if (!normalized.isEmpty()) keys.add(normalized);
+        }
+        return keys;
+    }
+
+    private void unlink(Entry<T> entry) {
+        for (String gram : entry.grams) {
+            Set<Entry<T>> list = postings.get(gram);
+            if (list != null && list.remove(entry) && list.isEmpty()) {
+                postings.remove(gram);
+            }
+        }
+    }
+
+    private static final class Entry<T> {
+        T item;
+        final List<String> keys;
+        final Set<String> grams = new HashSet<>();
+        int position;
+
+        Entry(T item, List<String> keys, int position) {
+            this.item = item;
+            this.keys = keys;
+            this.position = position;
+            for (String key : keys) {
+                for (int n = 1; n <= N; n++) {
+                    for (int i = 0; i + n <= key.length(); i++) {
+                        grams.add(key.substring(i, i + n));
+                    }
+                }
+            }
+        }
+
+        boolean contains(String needle) {
+            for (String key : keys) {
+                if (key.contains(needle)) return true;
+            }
+            return false;
+        }
+    }
+}
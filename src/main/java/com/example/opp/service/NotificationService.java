@@ -1,24 +1,65 @@
 package com.example.opp.service;
 
+import com.example.opp.database.ChangeEvent;
+import com.example.opp.database.ChangeListener;
+import com.example.opp.database.DatabaseManager;
 import com.example.opp.repository.BookingRepository;
 import javafx.application.Platform;
 import javafx.beans.property.IntegerProperty;
 import javafx.beans.property.SimpleIntegerProperty;
 
 import java.sql.SQLException;
-import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
+/**
+ * Badge web booking baru. Booking masuk didorong lewat event INSERT dari LISTEN/NOTIFY;
+ * polling hanya cadangan dengan backoff eksponensial saat listener tidak tersambung,
+ * plus pengecekan jarang saat tersambung. Posisi dicatat sebagai id booking terbesar
+ * yang sudah dihitung (high-water mark dari server), bukan jam client.
+ */
 public class NotificationService {
-    
+
+    private static final long MIN_POLL_SECONDS = 5;
+    private static final long MAX_POLL_SECONDS = 300;
+    private static final long LISTENING_POLL_SECONDS = 300;
+    private static final int BATCH_SIZE = 500;
+    private static final int REMEMBERED_IDS = 1000;
+
     private static NotificationService instance;
     private final BookingRepository bookingRepository;
+    private final DatabaseManager db = DatabaseManager.getInstance();
     private final ScheduledExecutorService scheduler;
     private final IntegerProperty newWebBookingsCount = new SimpleIntegerProperty(0);
-    private LocalDateTime lastCheck = LocalDateTime.now();
-    
+    private final AtomicBoolean checkQueued = new AtomicBoolean();
+    private final ChangeListener changeListener = new ChangeListener() {
+        @Override
+        public void onChange(ChangeEvent event) {
+            if (event.isFor("bookings") && event.operation() == ChangeEvent.Operation.INSERT) {
+                scheduler.execute(() -> onBookingInserted(event.id()));
+            }
+        }
+
+        @Override
+        public void onResync() {
+            requestCheck();
+        }
+    };
+
+    // Hanya diakses dari thread scheduler
+    private final Set<Long> countedIds = new LinkedHashSet<>();
+    private long highWaterId = -1;
+    private long pollSeconds = MIN_POLL_SECONDS;
+    private ScheduledFuture<?> nextPoll;
+    private boolean started;
+
     private NotificationService() {
         this.bookingRepository = new BookingRepository();
         this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
@@ -27,46 +68,114 @@ public class NotificationService {
             return t;
         });
     }
-    
-    public static NotificationService getInstance() {
+
+    public static synchronized NotificationService getInstance() {
         if (instance == null) {
             instance = new NotificationService();
         }
         return instance;
     }
-    
+
     public void startPolling() {
-        scheduler.scheduleAtFixedRate(this::checkForNewBookings, 0, 5, TimeUnit.SECONDS);
+        scheduler.execute(() -> {
+            if (started) return;
+            started = true;
+            db.addChangeListener(changeListener);
+            checkForNewBookings();
+        });
     }
-    
+
     public void stopPolling() {
+        db.removeChangeListener(changeListener);
         scheduler.shutdown();
     }
-    
+
+    private void requestCheck() {
+        // Banyak event berdekatan cukup satu query
+        if (checkQueued.compareAndSet(false, true)) {
+            scheduler.execute(() -> {
+                checkQueued.set(false);
+                checkForNewBookings();
+            });
+        }
+    }
+
+    private void onBookingInserted(long id) {
+        if (highWaterId < 0 || id > highWaterId) {
+            checkForNewBookings();
+            return;
+        }
+        // Id lebih kecil dari high-water: transaksinya commit belakangan, cek baris itu saja
+        if (countedIds.contains(id)) return;
+        try {
+            if (bookingRepository.isWebBooking(id)) {
+                remember(id);
+                publish(1);
+            }
+        } catch (SQLException e) {
+            System.err.println("Error checking booking " + id + ": " + e.getMessage());
+        }
+    }
+
     private void checkForNewBookings() {
         try {
-            int count = bookingRepository.countNewWebBookingsSince(lastCheck);
-            Platform.runLater(() -> {
-                if (count > 0) {
-                    newWebBookingsCount.set(newWebBookingsCount.get() + count);
-                }
-            });
-            lastCheck = LocalDateTime.now();
+            if (highWaterId < 0) {
+                // Booking yang sudah ada sebelum aplikasi dibuka tidak dihitung
+                highWaterId = bookingRepository.findMaxWebBookingId();
+                pollSeconds = MIN_POLL_SECONDS;
+            } else {
+                int found = 0;
+                List<Long> ids;
+                do {
+                    ids = bookingRepository.findWebBookingIdsAfter(highWaterId, BATCH_SIZE);
+                    for (Long id : ids) {
+                        if (remember(id)) found++;
+                        highWaterId = Math.max(highWaterId, id);
+                    }
+                } while (ids.size() == BATCH_SIZE);
+                publish(found);
+                pollSeconds = found > 0 ? MIN_POLL_SECONDS : Math.min(MAX_POLL_SECONDS, pollSeconds * 2);
+            }
         } catch (SQLException e) {
-            // Log error silently
             System.err.println("Error checking new bookings: " + e.getMessage());
+            pollSeconds = Math.min(MAX_POLL_SECONDS, pollSeconds * 2);
         }
+        scheduleNextPoll();
     }
-    
+
+    private void scheduleNextPoll() {
+        if (nextPoll != null) {
+            nextPoll.cancel(false);
+        }
+        long delay = db.isListeningForChanges() ? LISTENING_POLL_SECONDS : pollSeconds;
+        nextPoll = scheduler.schedule(this::checkForNewBookings, delay, TimeUnit.SECONDS);
+    }
+
+    private boolean remember(long id) {
+        if (!countedIds.add(id)) return false;
+        if (countedIds.size() > REMEMBERED_IDS) {
+            Iterator<Long> oldest = countedIds.iterator();
+            oldest.next();
+            oldest.remove();
+        }
+        return true;
+    }
+
+    private void publish(int count) {
+        if (count > 0) {
+            Platform.runLater(() -> newWebBookingsCount.set(newWebBookingsCount.get() + count));
+        }
+    }
+
     public IntegerProperty newWebBookingsCountProperty() {
         return newWebBookingsCount;
     }
-    
+
     public int getNewWebBookingsCount() {
         return newWebBookingsCount.get();
     }
-    
+
     public void markBookingsAsRead() {
         Platform.runLater(() -> newWebBookingsCount.set(0));
     }
-}
\ No newline at end of file
+}
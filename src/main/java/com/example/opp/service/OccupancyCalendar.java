@@ -0,0 +1,163 @@
+package com.example.opp.service;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Kalender hunian berbasis bitset: satu long[] per kamar, bit d berarti kamar terisi
+ * pada malam ke-d sejak tanggal awal. Cek ketersediaan cukup scan word dengan mask,
+ * jumlah kamar bebas per malam dihitung dari bit yang terpasang.
+ */
+public final class OccupancyCalendar {
+
+    public static final int HORIZON_DAYS = 365;
+
+    private final LocalDate start;
+    private final int startDay;
+    private final int days;
+    private final int words;
+    private final Map<Long, long[]> rooms = new ConcurrentHashMap<>();
+
+    public OccupancyCalendar(LocalDate start, int days) {
+        if (days <= 0) {
+            throw new IllegalArgumentException("days must be positive");
+        }
+        this.start = start;
+        this.startDay = (int) start.toEpochDay();
+        this.days = days;
+        this.words = (days + 63) >>> 6;
+    }
+
+    /**
+     * Kalender rolling 365 hari mulai hari ini
+     */
+    public static OccupancyCalendar fromToday() {
+        return new OccupancyCalendar(LocalDate.now(), HORIZON_DAYS);
+    }
+
+    public LocalDate getStart() {
+        return start;
+    }
+
+    public int getDays() {
+        return days;
+    }
+
+    /**
+     * Rentang [checkIn, checkOut) seluruhnya berada di dalam kalender
+     */
+    public boolean covers(LocalDate checkIn, LocalDate checkOut) {
+        int from = offset(checkIn);
+        int to = offset(checkOut);
+        return from >= 0 && to <= days && from <= to;
+    }
+
+    /**
+     * Tandai malam [checkIn, checkOut) sebagai terisi; bagian di luar kalender diabaikan
+     */
+    public void occupy(Long roomId, LocalDate checkIn, LocalDate checkOut) {
+        int from = Math.max(0, offset(checkIn));
+        int to = Math.min(days, offset(checkOut));
+        long[] bits = rooms.computeIfAbsent(roomId, k -> new long[words]);
+        if (from < to) {
+            setRange(bits, from, to);
+        }
+    }
+
+    /**
+     * Ganti bitset satu kamar dari rentang epoch-day [starts[i], ends[i]).
+     * Array baru dipasang utuh, pembaca tidak pernah melihat bitset setengah jadi.
+     */
+    public void setRoom(Long roomId, int[] starts, int[] ends, int count) {
+        long[] bits = new long[words];
+        boolean any = false;
+        for (int i = 0; i < count; i++) {
+            int from = Math.max(0, starts[i] - startDay);
+            int to = Math.min(days, ends[i] - startDay);
+            if (from < to) {
+                setRange(bits, from, to);
+                any = true;
+            }
+        }
+        if (any) {
+            rooms.put(roomId, bits);
+        } else {
+            rooms.remove(roomId);
+        }
+    }
+
+    public void clearRoom(Long roomId) {
+        rooms.remove(roomId);
+    }
+
+    /**
+     * Kamar bebas pada [checkIn, checkOut); rentang harus berada dalam kalender (lihat {@link #covers})
+     */
+    public boolean isFree(Long roomId, LocalDate checkIn, LocalDate checkOut) {
+        long[] bits = rooms.get(roomId);
+        return bits == null || !anySet(bits, offset(checkIn), offset(checkOut));
+    }
+
+    /**
+     * Jumlah kamar bebas per malam di antara {@code roomIds} untuk [from, to)
+     */
+    public int[] freePerNight(Collection<Long> roomIds, LocalDate from, LocalDate to) {
+        int lo = offset(from);
+        int hi = offset(to);
+        int[] free = new int[Math.max(0, hi - lo)];
+        Arrays.fill(free, roomIds.size());
+        int clippedLo = Math.max(0, lo);
+        int clippedHi = Math.min(days, hi);
+        if (clippedLo >= clippedHi) return free;
+
+        for (Long roomId : roomIds) {
+            long[] bits = rooms.get(roomId);
+            if (bits == null) continue;
+            for (int w = clippedLo >>> 6; w <= (clippedHi - 1) >>> 6; w++) {
+                long word = bits[w] & mask(w, clippedLo, clippedHi);
+                while (word != 0) {
+                    int bit = (w << 6) + Long.numberOfTrailingZeros(word);
+                    free[bit - lo]--;
+                    word &= word - 1;
+                }
+            }
+        }
+        return free;
+    }
+
+    private int offset(LocalDate date) {
+        return (int) date.toEpochDay() - startDay;
+    }
+
+    private static void setRange(long[] bits, int from, int to) {
+        for (int w = from >>> 6; w <= (to - 1) >>> 6; w++) {
+            bits[w] |= mask(w, from, to);
+        }
+    }
+
+    private static boolean anySet(long[] bits, int from, int to) {
+        if (from >= to) return false;
+        for (int w = from >>> 6; w <= (to - 1) >>> 6; w++) {
+            if ((bits[w] & mask(w, from, to)) != 0) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Mask bit [from, to) yang jatuh di word ke-w
+     */
+    private static long mask(int w, int from, int to) {
+        int base = w << 6;
+        long mask = -1L;
+        if (from > base) {
+            mask &= -1L << (from - base);
+        }
+        if (to < base + 64) {
+            mask &= -1L >>> (base + 64 - to);
+        }
+        return mask;
+    }
+}
@@ -0,0 +1,135 @@
+package com.example.opp.service;
+
+import com.example.opp.config.AppConfig;
+import com.example.opp.database.ChangeEvent;
+import com.example.opp.database.ChangeListener;
+import com.example.opp.database.DatabaseManager;
+import com.example.opp.model.Room;
+import com.example.opp.model.RoomType;
+import com.example.opp.repository.CacheStats;
+import com.example.opp.repository.EntityCache;
+import com.example.opp.repository.IdentityMap;
+import com.example.opp.repository.RoomRepository;
+import com.example.opp.repository.RoomTypeRepository;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cache proses untuk data referensi yang jarang berubah: tipe kamar dan kamar.
+ * Tipe kamar hampir tidak pernah diubah sehingga TTL-nya panjang; kamar lebih sering
+ * (status), jadi TTL-nya pendek dan setiap penulisan lewat service meng-invalidate entrinya.
+ * Penulisan dari client lain datang lewat event perubahan DatabaseManager.
+ */
+public final class ReferenceDataCache {
+
+    private static ReferenceDataCache instance;
+
+    private final DatabaseManager db = DatabaseManager.getInstance();
+    private final RoomTypeRepository roomTypeRepository = new RoomTypeRepository();
+    private final RoomRepository roomRepository = new RoomRepository();
+    private final EntityCache<Long, RoomType> roomTypes;
+    private final EntityCache<Long, Room> rooms;
+
+    private ReferenceDataCache() {
+        int maxSize = AppConfig.getInt("cache.reference.max-size", 500);
+        this.roomTypes = new EntityCache<>("room_types", maxSize,
+            AppConfig.getInt("cache.room-types.ttl-seconds", 600), TimeUnit.SECONDS);
+        this.rooms = new EntityCache<>("rooms", maxSize,
+            AppConfig.getInt("cache.rooms.ttl-seconds", 60), TimeUnit.SECONDS);
+
+        // Perubahan dari client lain (LISTEN/NOTIFY)
+        db.addChangeListener(new ChangeListener() {
+            @Override
+            public void onChange(ChangeEvent event) {
+                if (event.isFor("rooms")) {
+                    rooms.invalidate(event.id());
+                } else if (event.isFor("room_types")) {
+                    roomTypes.invalidate(event.id());
+                }
+            }
+
+            @Override
+            public void onResync() {
+                roomTypes.invalidateAll();
+                rooms.invalidateAll();
+            }
+        });
+    }
+
+    public static synchronized ReferenceDataCache getInstance() {
+        if (instance == null) {
+            instance = new ReferenceDataCache();
+        }
+        return instance;
+    }
+
+    public Optional<RoomType> getRoomType(Long id) throws SQLException {
+        return roomTypes.get(id, roomTypeRepository::findById);
+    }
+
+    public Map<Long, RoomType> getRoomTypes(Collection<Long> ids) throws SQLException {
+        return roomTypes.getAll(ids, roomTypeRepository::findAllByIds);
+    }
+
+    public Optional<Room> getRoom(Long id) throws SQLException {
+        return rooms.get(id, roomRepository::findById);
+    }
+
+    public Map<Long, Room> getRooms(Collection<Long> ids) throws SQLException {
+        return rooms.getAll(ids, roomRepository::findAllByIds);
+    }
+
+    /**
+     * Salinan {@code rooms} yang sudah dilengkapi tipe kamarnya. Room dari cache dipakai bersama
+     * antar thread, jadi tipe kamar tidak pernah dipasang ke instance aslinya. Dalam satu
+     * {@code identityMap} setiap kamar hanya disalin sekali dan setiap tipe kamar hanya dicari sekali.
+     */
+    public List<Room> withRoomTypes(Collection<Room> rooms, IdentityMap identityMap) throws SQLException {
+        Map<Long, Room> copies = identityMap.table("rooms");
+        Map<Long, RoomType> types = identityMap.table("room_types");
+        types.putAll(getRoomTypes(rooms.stream()
+            .filter(room -> !copies.containsKey(room.getId()))
+            .map(Room::getRoomTypeId)
+            .filter(id -> !types.containsKey(id))
+            .toList()));
+
+        List<Room> result = new ArrayList<>(rooms.size());
+        for (Room room : rooms) {
+            result.add(copies.computeIfAbsent(room.getId(), id -> {
+                Room copy = room.copy();
+                copy.setRoomType(types.get(room.getRoomTypeId()));
+                return copy;
+            }));
+        }
+        return result;
+    }
+
+    /**
+     * Di dalam transaksi invalidasi ditunda sampai commit, supaya pembaca lain tidak
+     * sempat mengisi ulang cache dengan data sebelum commit
+     */
+    public void invalidateRoom(Long id) {
+        db.afterCommit(() -> rooms.invalidate(id));
+    }
+
+    public void invalidateRoomType(Long id) {
+        db.afterCommit(() -> roomTypes.invalidate(id));
+    }
+
+    public void invalidateAll() {
+        db.afterCommit(() -> {
+            roomTypes.invalidateAll();
+            rooms.invalidateAll();
+        });
+    }
+
+    public List<CacheStats> getStats() {
+        return List.of(roomTypes.getStats(), rooms.getStats());
+    }
+}
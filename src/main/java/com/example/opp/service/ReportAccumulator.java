@@ -0,0 +1,75 @@
+package com.example.opp.service;
+
+import com.example.opp.model.Booking;
+import com.example.opp.model.BookingStatus;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+
+/**
+ * Statistik laporan untuk periode [from, to] dalam satu kali jalan atas booking.
+ * Semua counter berupa long primitif, pendapatan dalam satuan sen, dan masa inap dipotong
+ * ke jendela laporan. Booking di luar periode diabaikan, jadi bisa diberi seluruh isi tabel
+ * secara streaming. Baris harian laporan diambil dari rollup daily_stats (dirawat trigger, dibaca
+ * di snapshot yang sama dengan booking), bukan dari sini.
+ */
+public final class ReportAccumulator {
+
+    private final int startDay;
+    private final int days;
+
+    private long bookings;
+    private long bookedNights;
+    private long paidRevenueCents;
+    private long occupiedNights;
+
+    public ReportAccumulator(LocalDate from, LocalDate to) {
+        if (to.isBefore(from)) {
+            throw new IllegalArgumentException("to must not be before from");
+        }
+        this.startDay = (int) from.toEpochDay();
+        this.days = (int) (to.toEpochDay() - startDay) + 1;
+    }
+
+    public void add(Booking booking) {
+        int in = (int) booking.getCheckInDate().toEpochDay() - startDay;
+        int out = (int) booking.getCheckOutDate().toEpochDay() - startDay;
+        // Sama dengan BookingRepository.findInPeriod: check-in <= to dan check-out >= from
+        if (in >= days || out < 0) return;
+
+        BookingStatus status = booking.getStatus();
+        if (status == BookingStatus.CANCELLED) return;
+
+        bookings++;
+        bookedNights += booking.getTotalNights();
+
+        if (status == BookingStatus.CHECKED_IN || status == BookingStatus.CHECKED_OUT) {
+            paidRevenueCents += toCents(booking.getTotalAmount());
+            occupiedNights += Math.max(0, Math.min(days, out) - Math.max(0, in));
+        }
+    }
+
+    public Summary summary(int totalRooms) {
+        double averageNights = bookings > 0 ? (double) bookedNights / bookings : 0;
+        double occupancy = totalRooms > 0
+            ? Math.min(100, (double) occupiedNights / ((long) totalRooms * days) * 100)
+            : 0;
+        return new Summary(bookings, fromCents(paidRevenueCents), averageNights, occupiedNights, occupancy);
+    }
+
+    private static long toCents(BigDecimal amount) {
+        return amount == null ? 0 : amount.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValue();
+    }
+
+    private static BigDecimal fromCents(long cents) {
+        return BigDecimal.valueOf(cents, 2);
+    }
+
+    /**
+     * Ringkasan periode: booking selain cancelled, pendapatan booking CHECKED_IN/CHECKED_OUT,
+     * rata-rata malam per booking dan tingkat hunian dari malam terisi di dalam periode
+     */
+    public record Summary(long bookings, BigDecimal paidRevenue, double averageNights,
+                          long occupiedNights, double occupancyRate) {}
+}
@@ -0,0 +1,246 @@
+package com.example.opp.service;
+
+import com.example.opp.model.Booking;
+import com.example.opp.model.BookingStatus;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Index ketersediaan kamar di memori. Per kamar disimpan array primitif
+ * rentang epoch-day [check-in, check-out) dari booking yang masih memblokir kamar,
+ * terurut menurut check-in dan dilengkapi prefix-max check-out untuk cek overlap O(log n).
+ * Pembaca tidak pernah di-lock: setiap perubahan mengganti snapshot array kamar tersebut.
+ * Untuk 365 hari ke depan juga dijaga {@link OccupancyCalendar} sehingga cek rentang
+ * dan hitungan kamar bebas per malam cukup operasi bitset.
+ */
+public final class RoomAvailabilityIndex {
+
+    private static RoomAvailabilityIndex instance;
+
+    private final Map<Long, Intervals> rooms = new ConcurrentHashMap<>();
+    private final Map<Long, Long> roomByBooking = new ConcurrentHashMap<>();
+    private volatile OccupancyCalendar calendar = OccupancyCalendar.fromToday();
+    private volatile boolean loaded = false;
+
+    public static synchronized RoomAvailabilityIndex getInstance() {
+        if (instance == null) {
+            instance = new RoomAvailabilityIndex();
+        }
+        return instance;
+    }
+
+    /**
+     * Status yang membuat kamar tidak bisa dipesan, sama dengan filter di BookingRepository.isRoomAvailable
+     */
+    public static boolean blocksRoom(BookingStatus status) {
+        return status != BookingStatus.CANCELLED && status != BookingStatus.CHECKED_OUT;
+    }
+
+    public synchronized void load(Collection<Booking> bookings) {
+        Map<Long, List<Booking>> byRoom = new HashMap<>();
+        for (Booking booking : bookings) {
+            if (booking.getId() == null || !blocksRoom(booking.getStatus())) continue;
+            byRoom.computeIfAbsent(booking.getRoomId(), k -> new ArrayList<>()).add(booking);
+        }
+
+        rooms.clear();
+        roomByBooking.clear();
+        byRoom.forEach((roomId, list) -> {
+            Intervals intervals = Intervals.EMPTY;
+            for (Booking booking : list) {
+                intervals = intervals.with(booking.getId(), toDay(booking.getCheckInDate()), toDay(booking.getCheckOutDate()));
+                roomByBooking.put(booking.getId(), roomId);
+            }
+            rooms.put(roomId, intervals);
+        });
+        rebuildCalendar(LocalDate.now());
+        loaded = true;
+    }
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * Tambah atau perbarui booking; booking yang tidak lagi memblokir kamar akan dihapus
+     */
+    public synchronized void put(Booking booking) {
+        remove(booking.getId());
+        if (!blocksRoom(booking.getStatus())) return;
+
+        Long roomId = booking.getRoomId();
+        Intervals updated = rooms.getOrDefault(roomId, Intervals.EMPTY)
+            .with(booking.getId(), toDay(booking.getCheckInDate()), toDay(booking.getCheckOutDate()));
+        rooms.put(roomId, updated);
+        roomByBooking.put(booking.getId(), roomId);
+        calendar.setRoom(roomId, updated.starts, updated.ends, updated.size());
+    }
+
+    public synchronized void remove(Long bookingId) {
+        if (bookingId == null) return;
+        Long roomId = roomByBooking.remove(bookingId);
+        if (roomId == null) return;
+
+        Intervals remaining = rooms.getOrDefault(roomId, Intervals.EMPTY).without(bookingId);
+        if (remaining.size() == 0) {
+            rooms.remove(roomId);
+            calendar.clearRoom(roomId);
+        } else {
+            rooms.put(roomId, remaining);
+            calendar.setRoom(roomId, remaining.starts, remaining.ends, remaining.size());
+        }
+    }
+
+    public boolean isAvailable(Long roomId, LocalDate checkIn, LocalDate checkOut) {
+        OccupancyCalendar current = currentCalendar();
+        if (current.covers(checkIn, checkOut)) {
+            return current.isFree(roomId, checkIn, checkOut);
+        }
+        Intervals intervals = rooms.get(roomId);
+        return intervals == null || !intervals.overlaps(toDay(checkIn), toDay(checkOut));
+    }
+
+    public List<Long> findAvailableRooms(Collection<Long> roomIds, LocalDate checkIn, LocalDate checkOut) {
+        OccupancyCalendar current = currentCalendar();
+        boolean useCalendar = current.covers(checkIn, checkOut);
+        int in = toDay(checkIn);
+        int out = toDay(checkOut);
+        List<Long> available = new ArrayList<>();
+        for (Long roomId : roomIds) {
+            boolean free;
+            if (useCalendar) {
+                free = current.isFree(roomId, checkIn, checkOut);
+            } else {
+                Intervals intervals = rooms.get(roomId);
+                free = intervals == null || !intervals.overlaps(in, out);
+            }
+            if (free) {
+                available.add(roomId);
+            }
+        }
+        return available;
+    }
+
+    /**
+     * Jumlah kamar bebas per malam untuk [from, to), index 0 adalah malam {@code from}.
+     * Malam di luar horizon 365 hari dihitung sebagai bebas.
+     */
+    public int[] countFreeRoomsPerNight(Collection<Long> roomIds, LocalDate from, LocalDate to) {
+        return currentCalendar().freePerNight(roomIds, from, to);
+    }
+
+    /**
+     * Kalender digeser ke hari ini saat tanggal berganti
+     */
+    private OccupancyCalendar currentCalendar() {
+        OccupancyCalendar current = calendar;
+        LocalDate today = LocalDate.now();
+        if (current.getStart().equals(today)) {
+            return current;
+        }
+        synchronized (this) {
+            if (!calendar.getStart().equals(today)) {
+                rebuildCalendar(today);
+            }
+            return calendar;
+        }
+    }
+
+    private void rebuildCalendar(LocalDate start) {
+        OccupancyCalendar rebuilt = new OccupancyCalendar(start, OccupancyCalendar.HORIZON_DAYS);
+        rooms.forEach((roomId, intervals) -> rebuilt.setRoom(roomId, intervals.starts, intervals.ends, intervals.size()));
+        calendar = rebuilt;
+    }
+
+    private static int toDay(LocalDate date) {
+        return (int) date.toEpochDay();
+    }
+
+    /**
+     * Snapshot immutable rentang booking untuk satu kamar
+     */
+    private static final class Intervals {
+
+        static final Intervals EMPTY = new Intervals(new long[0], new int[0], new int[0]);
+
+        final long[] bookingIds;
+        final int[] starts;
+        final int[] ends;
+        final int[] maxEnds;
+
+        Intervals(long[] bookingIds, int[] starts, int[] ends) {
+            this.bookingIds = bookingIds;
+            this.starts = starts;
+            this.ends = ends;
+            this.maxEnds = new int[ends.length];
+            int max = Integer.MIN_VALUE;
+            for (int i = 0; i < ends.length; i++) {
+                max = Math.max(max, ends[i]);
+                maxEnds[i] = max;
+            }
+        }
+
+        int size() {
+            return starts.length;
+        }
+
+        /**
+         * Ada booking dengan start < out dan end > in
+         */
+        boolean overlaps(int in, int out) {
+            int count = lowerBound(starts, out);
+            return count > 0 && maxEnds[count - 1] > in;
+        }
+
+        Intervals with(long bookingId, int start, int end) {
+            int n = starts.length;
+            int pos = lowerBound(starts, start);
+            long[] ids = new long[n + 1];
+            int[] s = new int[n + 1];
+            int[] e = new int[n + 1];
+            System.arraycopy(bookingIds, 0, ids, 0, pos);
+            System.arraycopy(starts, 0, s, 0, pos);
+            System.arraycopy(ends, 0, e, 0, pos);
+            ids[pos] = bookingId;
+            s[pos] = start;
+            e[pos] = end;
+            System.arraycopy(bookingIds, pos, ids, pos + 1, n - pos);
+            System.arraycopy(starts, pos, s, pos + 1, n - pos);
+            System.arraycopy(ends, pos, e, pos + 1, n - pos);
+            return new Intervals(ids, s, e);
+        }
+
+        Intervals without(long bookingId) {
+            for (int i = 0; i < bookingIds.length; i++) {
+                if (bookingIds[i] != bookingId) continue;
+                int n = bookingIds.length;
+                long[] ids = Arrays.copyOf(bookingIds, n - 1);
+                int[] s = Arrays.copyOf(starts, n - 1);
+                int[] e = Arrays.copyOf(ends, n - 1);
+                System.arraycopy(bookingIds, i + 1, ids, i, n - i - 1);
+                System.arraycopy(starts, i + 1, s, i, n - i - 1);
+                System.arraycopy(ends, i + 1, e, i, n - i - 1);
+                return new Intervals(ids, s, e);
+            }
+            return this;
+        }
+
+        private static int lowerBound(int[] values, int key) {
+            int lo = 0;
+            int hi = values.length;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (values[mid] < key) lo = mid + 1;
+                else hi = mid;
+            }
+            return lo;
+        }
+    }
+}
@@ -2,7 +2,9 @@ package com.example.opp.service;
 
 import com.example.opp.model.Room;
 import com.example.opp.model.RoomStatus;
+import com.example.opp.model.RoomStatusSummary;
 import com.example.opp.model.RoomType;
+import com.example.opp.repository.IdentityMap;
 import com.example.opp.repository.RoomRepository;
 import com.example.opp.repository.RoomTypeRepository;
 
@@ -14,54 +16,52 @@ public class RoomService {
 
     private final RoomRepository roomRepository;
     private final RoomTypeRepository roomTypeRepository;
+    private final ReferenceDataCache referenceCache;
 
     public RoomService() {
         this.roomRepository = new RoomRepository();
         this.roomTypeRepository = new RoomTypeRepository();
+        this.referenceCache = ReferenceDataCache.getInstance();
     }
 
     public List<Room> getAllRooms() throws SQLException {
-        List<Room> rooms = roomRepository.findAll();
-        for (Room room : rooms) {
-            loadRoomType(room);
-        }
-        return rooms;
+        return loadRoomTypes(roomRepository.findAll(), new IdentityMap());
     }
 
     public List<Room> getAvailableRooms() throws SQLException {
-        List<Room> rooms = roomRepository.findAvailable();
-        for (Room room : rooms) {
-            loadRoomType(room);
-        }
-        return rooms;
+        return loadRoomTypes(roomRepository.findAvailable(), new IdentityMap());
     }
 
     public Optional<Room> getRoomById(Long id) throws SQLException {
-        Optional<Room> room = roomRepository.findById(id);
-        room.ifPresent(this::loadRoomType);
-        return room;
+        return referenceCache.getRoom(id).map(this::loadRoomType);
     }
 
     public Optional<Room> getRoomByNumber(String roomNumber) throws SQLException {
-        Optional<Room> room = roomRepository.findByRoomNumber(roomNumber);
-        room.ifPresent(this::loadRoomType);
-        return room;
+        return roomRepository.findByRoomNumber(roomNumber).map(this::loadRoomType);
     }
 
     public long createRoom(Room room) throws SQLException {
-        return roomRepository.save(room);
+        long id = roomRepository.save(room);
+        referenceCache.invalidateRoom(id);
+        return id;
     }
 
     public boolean updateRoom(Room room) throws SQLException {
-        return roomRepository.update(room) > 0;
+        boolean updated = roomRepository.update(room) > 0;
+        referenceCache.invalidateRoom(room.getId());
+        return updated;
     }
 
     public boolean updateRoomStatus(Long roomId, RoomStatus status) throws SQLException {
-        return roomRepository.updateStatus(roomId, status) > 0;
+        boolean updated = roomRepository.updateStatus(roomId, status) > 0;
+        referenceCache.invalidateRoom(roomId);
+        return updated;
     }
 
     public boolean deleteRoom(Long id) throws SQLException {
-        return roomRepository.delete(id) > 0;
+        boolean deleted = roomRepository.delete(id) > 0;
+        referenceCache.invalidateRoom(id);
+        return deleted;
     }
 
     public List<RoomType> getAllRoomTypes() throws SQLException {
@@ -85,15 +85,26 @@ public class RoomService {
     }
 
     public int getTotalRoomCount() throws SQLException {
-        return roomRepository.findAll().size();
+        return roomRepository.getStatusSummary().total();
+    }
+
+    /**
+     * Jumlah kamar per status dan per tipe kamar dalam satu round trip
+     */
+    public RoomStatusSummary getStatusSummary() throws SQLException {
+        return roomRepository.getStatusSummary();
     }
 
-    private void loadRoomType(Room room) {
+    private List<Room> loadRoomTypes(List<Room> rooms, IdentityMap identityMap) {
         try {
-            roomTypeRepository.findById(room.getRoomTypeId())
-                .ifPresent(room::setRoomType);
+            return referenceCache.withRoomTypes(rooms, identityMap);
         } catch (SQLException e) {
             // Log silently - room type is optional for display
+            return rooms;
         }
     }
+
+    private Room loadRoomType(Room room) {
+        return loadRoomTypes(List.of(room), new IdentityMap()).get(0);
+    }
 }
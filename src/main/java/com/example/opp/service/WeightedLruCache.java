@@ -0,0 +1,78 @@
+package com.example.opp.service;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.ToLongFunction;
+
+/**
+ * LRU yang dibatasi total bobot entri (misalnya byte hasil decode gambar), bukan jumlah entri.
+ * Entri yang paling lama tidak dipakai dibuang sampai total bobot kembali di bawah batas;
+ * entri yang sendirian sudah melebihi batas tidak disimpan. Tidak thread-safe.
+ */
+final class WeightedLruCache<K, V> {
+
+    private final LinkedHashMap<K, V> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final ToLongFunction<V> weigher;
+    private final long maxWeight;
+
+    private long weight;
+    private long evictions;
+
+    WeightedLruCache(long maxWeight, ToLongFunction<V> weigher) {
+        if (maxWeight <= 0) {
+            throw new IllegalArgumentException("maxWeight must be positive");
+        }
+        this.maxWeight = maxWeight;
+        this.weigher = weigher;
+    }
+
+    V get(K key) {
+        return entries.get(key);
+    }
+
+    /**
+     * Simpan entri; mengembalikan false jika bobotnya sendiri melebihi batas
+     */
+    boolean put(K key, V value) {
+        long entryWeight = weigher.applyAsLong(value);
+        if (entryWeight > maxWeight) return false;
+
+        V previous = entries.put(key, value);
+        if (previous != null) {
+            weight -= weigher.applyAsLong(previous);
+        }
+        weight += entryWeight;
+
+        Iterator<Map.Entry<K, V>> eldest = entries.entrySet().iterator();
+        while (weight > maxWeight && eldest.hasNext()) {
+            Map.Entry<K, V> entry = eldest.next();
+            if (entry.getKey().equals(key)) continue;
+            weight -= weigher.applyAsLong(entry.getValue());
+            eldest.remove();
+            evictions++;
+        }
+        return true;
+    }
+
+    void clear() {
+        entries.clear();
+        weight = 0;
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    long weight() {
+        return weight;
+    }
+
+    long maxWeight() {
+        return maxWeight;
+    }
+
+    long evictions() {
+        return evictions;
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.opp.util;
+
+import com.example.opp.config.AppConfig;
+import com.example.opp.database.DatabaseManager;
+import com.example.opp.repository.ReportRepository;
+
+/**
+ * Tool untuk mengisi ulang tabel rollup daily_stats dari seluruh data bookings
+ * (backfill pertama kali setelah trigger rollup dipasang di database yang sudah berisi booking)
+ * Run: mvn exec:java -Dexec.mainClass="com.example.opp.util.DailyStatsRebuilder"
+ */
+public class DailyStatsRebuilder {
+
+    public static void main(String[] args) {
+        System.out.println("=================================");
+        System.out.println("  DAILY STATS REBUILD");
+        System.out.println("=================================\n");
+
+        try {
+            AppConfig.load();
+            DatabaseManager db = DatabaseManager.getInstance();
+            db.connect();
+
+            long start = System.currentTimeMillis();
+            int rows = new ReportRepository().rebuild();
+            System.out.println("✓ Rebuilt " + rows + " daily_stats rows in "
+                + (System.currentTimeMillis() - start) + " ms");
+
+            db.disconnect();
+        } catch (Exception e) {
+            System.err.println("Error: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+}
@@ -2,11 +2,13 @@ package com.example.opp.util;
 
 import com.example.opp.config.AppConfig;
 import com.example.opp.database.DatabaseManager;
+import com.example.opp.model.User;
+import com.example.opp.repository.UserRepository;
 
 import java.sql.Connection;
 import java.sql.PreparedStatement;
-import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.List;
 import java.util.Scanner;
 
 /**
@@ -37,7 +39,7 @@ public class PasswordMigrationTool {
             scanner.nextLine(); // consume newline
 
             switch (choice) {
-                case 1 -> hashAllPasswords(db);
+                case 1 -> hashAllPasswords();
                 case 2 -> hashSpecificUser(db, scanner);
                 case 3 -> generateHash(scanner);
                 default -> System.out.println("Invalid choice");
@@ -52,7 +54,7 @@ public class PasswordMigrationTool {
         }
     }
 
-    private static void hashAllPasswords(DatabaseManager db) throws SQLException {
+    private static void hashAllPasswords() throws SQLException {
         System.out.println("\n⚠️  WARNING: This will hash ALL passwords in the database!");
         System.out.print("Are you sure? (yes/no): ");
         
@@ -62,38 +64,16 @@ public class PasswordMigrationTool {
             return;
         }
 
-        Connection conn = db.getConnection();
-        
-        // Get all users with plain text passwords (passwords without ':' separator)
-        String selectSql = "SELECT id, username, password FROM users WHERE password NOT LIKE '%:%'";
-        String updateSql = "UPDATE users SET password = ? WHERE id = ?";
-        
-        try (PreparedStatement selectStmt = conn.prepareStatement(selectSql);
-             PreparedStatement updateStmt = conn.prepareStatement(updateSql)) {
-            
-            ResultSet rs = selectStmt.executeQuery();
-            int count = 0;
-            
-            while (rs.next()) {
-                long id = rs.getLong("id");
-                String username = rs.getString("username");
-                String plainPassword = rs.getString("password");
-                
-                String hashedPassword = PasswordUtil.hash(plainPassword);
-                
-                updateStmt.setString(1, hashedPassword);
-                updateStmt.setLong(2, id);
-                updateStmt.executeUpdate();
-                
-                System.out.println("✓ Hashed password for user: " + username);
-                count++;
-            }
-            
-            System.out.println("\n✓ Successfully hashed " + count + " passwords");
-            
-        } finally {
-            db.releaseConnection(conn);
+        UserRepository repository = new UserRepository();
+        List<User> users = repository.findWithPlainPasswords();
+        for (User user : users) {
+            user.setPassword(PasswordUtil.hash(user.getPassword()));
+            System.out.println("✓ Hashed password for user: " + user.getUsername());
         }
+
+        // Semua password baru disimpan dalam satu batch UPDATE
+        int count = repository.updatePasswords(users);
+        System.out.println("\n✓ Successfully hashed " + count + " passwords");
     }
 
     private static void hashSpecificUser(DatabaseManager db, Scanner scanner) throws SQLException {
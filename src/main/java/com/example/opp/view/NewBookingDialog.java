@@ -0,0 +1,227 @@
+package com.example.opp.view;
+
+import com.example.opp.model.Booking;
+import com.example.opp.model.Guest;
+import com.example.opp.model.Room;
+import com.example.opp.service.BookingService;
+import com.example.opp.service.DataLoader;
+import com.example.opp.service.GuestService;
+import com.example.opp.service.SessionManager;
+import com.example.opp.util.DialogUtil;
+import javafx.collections.FXCollections;
+import javafx.event.ActionEvent;
+import javafx.geometry.Insets;
+import javafx.scene.Node;
+import javafx.scene.control.*;
+import javafx.scene.layout.GridPane;
+import javafx.util.StringConverter;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Dialog booking baru untuk halaman Booking dan Dashboard. Daftar tamu dan kamar bebas dimuat
+ * di background; saat disimpan dialog tetap terbuka dengan tombol dinonaktifkan sampai booking
+ * tersimpan, jadi retry transaksi tidak pernah menahan FX thread.
+ */
+public final class NewBookingDialog {
+
+    private final BookingService bookingService;
+    private final GuestService guestService = new GuestService();
+    private final Consumer<Booking> onCreated;
+
+    private final Dialog<Void> dialog = new Dialog<>();
+    private final ButtonType saveBtn = new ButtonType("Simpan Booking", ButtonBar.ButtonData.OK_DONE);
+    private final ButtonType cancelBtn = new ButtonType("Batal", ButtonBar.ButtonData.CANCEL_CLOSE);
+    private final GridPane grid = new GridPane();
+    private final ComboBox<Guest> guestCombo = new ComboBox<>();
+    private final ComboBox<Room> roomCombo = new ComboBox<>();
+    private final DatePicker checkIn = new DatePicker(LocalDate.now());
+    private final DatePicker checkOut = new DatePicker(LocalDate.now().plusDays(1));
+    private final Label totalLabel = new Label("Rp 0");
+    private final TextArea notes = new TextArea();
+    private DataLoader.Subscription roomsLoad;
+
+    /**
+     * @param onCreated dipanggil di FX thread setelah booking tersimpan
+     */
+    public NewBookingDialog(BookingService bookingService, Consumer<Booking> onCreated) {
+        this.bookingService = bookingService;
+        this.onCreated = onCreated;
+
+        dialog.setTitle("Booking Baru");
+        dialog.setHeaderText(null);
+        dialog.getDialogPane().getButtonTypes().addAll(saveBtn, cancelBtn);
+
+        grid.setHgap(12);
+        grid.setVgap(12);
+        grid.setPadding(new Insets(20));
+
+        guestCombo.setConverter(new StringConverter<>() {
+            @Override
+            public String toString(Guest g) {
+                return g != null ? g.getFullName() + " (" + g.getIdNumber() + ")" : "";
+            }
+            @Override
+            public Guest fromString(String s) { return null; }
+        });
+
+        // Room selection: hanya kamar yang bebas pada tanggal yang dipilih
+        roomCombo.setConverter(new StringConverter<>() {
+            @Override
+            public String toString(Room r) {
+                if (r == null) return "";
+                String type = r.getRoomType() != null ? r.getRoomType().getName() : "Standard";
+                String price = r.getRoomType() != null ? r.getRoomType().getFormattedPrice() : "-";
+                return r.getRoomNumber() + " - " + type + " (" + price + "/malam)";
+            }
+            @Override
+            public Room fromString(String s) { return null; }
+        });
+
+        totalLabel.setStyle("-fx-font-weight: bold; -fx-font-size: 16px; -fx-text-fill: #0194F3;");
+        notes.setPromptText("Catatan atau permintaan khusus...");
+        notes.setPrefRowCount(2);
+
+        roomCombo.setOnAction(e -> calculateTotal());
+        checkIn.setOnAction(e -> refreshRooms());
+        checkOut.setOnAction(e -> refreshRooms());
+
+        grid.add(new Label("Tamu:"), 0, 0);
+        grid.add(guestCombo, 1, 0);
+        grid.add(new Label("Kamar:"), 0, 1);
+        grid.add(roomCombo, 1, 1);
+        grid.add(new Label("Tanggal Check-in:"), 0, 2);
+        grid.add(checkIn, 1, 2);
+        grid.add(new Label("Tanggal Check-out:"), 0, 3);
+        grid.add(checkOut, 1, 3);
+        grid.add(new Label("Total Biaya:"), 0, 4);
+        grid.add(totalLabel, 1, 4);
+        grid.add(new Label("Catatan:"), 0, 5);
+        grid.add(notes, 1, 5);
+
+        dialog.getDialogPane().setContent(grid);
+        dialog.getDialogPane().setPrefWidth(450);
+
+        // Simpan tidak langsung menutup dialog; dialog ditutup setelah booking tersimpan
+        dialog.getDialogPane().lookupButton(saveBtn).addEventFilter(ActionEvent.ACTION, e -> {
+            e.consume();
+            save();
+        });
+        dialog.setOnHidden(e -> DataLoader.getInstance().cancel(this));
+    }
+
+    public void show() {
+        loadGuests();
+        refreshRooms();
+        dialog.show();
+    }
+
+    private void loadGuests() {
+        guestCombo.setDisable(true);
+        guestCombo.setPromptText("Memuat data tamu...");
+        DataLoader.getInstance().load(this, "booking.dialog.guests", guestService::getAllGuests,
+            guests -> {
+                guestCombo.setItems(FXCollections.observableArrayList(guests));
+                guestCombo.setPromptText(null);
+                guestCombo.setDisable(false);
+            },
+            e -> {
+                guestCombo.setPromptText(null);
+                guestCombo.setDisable(false);
+                DialogUtil.error("Gagal memuat data tamu");
+            });
+    }
+
+    private void refreshRooms() {
+        if (roomsLoad != null) {
+            roomsLoad.cancel();
+            roomsLoad = null;
+        }
+        LocalDate in = checkIn.getValue();
+        LocalDate out = checkOut.getValue();
+        if (in == null || out == null || !out.isAfter(in)) {
+            roomCombo.getItems().clear();
+            calculateTotal();
+            return;
+        }
+
+        Long selectedId = roomCombo.getValue() != null ? roomCombo.getValue().getId() : null;
+        roomCombo.setDisable(true);
+        roomCombo.setPromptText("Memuat kamar...");
+        roomsLoad = DataLoader.getInstance().load(this, "booking.dialog.rooms." + in + "." + out,
+            () -> bookingService.getRoomsAvailableFor(in, out),
+            rooms -> {
+                roomsLoad = null;
+                roomCombo.setPromptText(null);
+                roomCombo.setDisable(false);
+                roomCombo.setItems(FXCollections.observableArrayList(rooms));
+                rooms.stream().filter(r -> r.getId().equals(selectedId)).findFirst().ifPresent(roomCombo::setValue);
+                calculateTotal();
+            },
+            e -> {
+                roomsLoad = null;
+                roomCombo.setPromptText(null);
+                roomCombo.setDisable(false);
+                DialogUtil.error("Gagal memuat data kamar");
+            });
+    }
+
+    private void calculateTotal() {
+        Room room = roomCombo.getValue();
+        LocalDate in = checkIn.getValue();
+        LocalDate out = checkOut.getValue();
+        if (room != null && room.getRoomType() != null && in != null && out != null && out.isAfter(in)) {
+            long nights = ChronoUnit.DAYS.between(in, out);
+            BigDecimal total = room.getRoomType().getBasePrice().multiply(BigDecimal.valueOf(nights));
+            totalLabel.setText(String.format("Rp %,.0f (%d malam)", total, nights));
+        } else {
+            totalLabel.setText("Rp 0");
+        }
+    }
+
+    private void save() {
+        Guest guest = guestCombo.getValue();
+        Room room = roomCombo.getValue();
+        LocalDate in = checkIn.getValue();
+        LocalDate out = checkOut.getValue();
+        if (guest == null || room == null) {
+            DialogUtil.peringatan("Silakan pilih tamu dan kamar");
+            return;
+        }
+        if (in == null || out == null || !out.isAfter(in)) {
+            DialogUtil.peringatan("Tanggal check-out harus setelah tanggal check-in");
+            return;
+        }
+        if (!DialogUtil.konfirmasiSimpan("booking baru")) return;
+
+        Long current = SessionManager.getInstance().getCurrentUserId();
+        Long userId = current != null ? current : 1L;
+        setSaving(true);
+        DataLoader.getInstance().submit(
+            () -> bookingService.createBooking(guest.getId(), room.getId(), in, out, userId),
+            booking -> {
+                dialog.close();
+                onCreated.accept(booking);
+                DialogUtil.sukses("Booking berhasil dibuat!");
+            },
+            e -> {
+                setSaving(false);
+                DialogUtil.error(e instanceof IllegalStateException
+                    ? e.getMessage()
+                    : "Gagal membuat booking: " + e.getMessage());
+            });
+    }
+
+    private void setSaving(boolean saving) {
+        grid.setDisable(saving);
+        for (ButtonType type : List.of(saveBtn, cancelBtn)) {
+            Node button = dialog.getDialogPane().lookupButton(type);
+            button.setDisable(saving);
+        }
+        dialog.setHeaderText(saving ? "Menyimpan booking..." : null);
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.opp.view;
+
+import java.util.Set;
+
+/**
+ * Controller halaman yang dimuat ulang otomatis saat tabel yang ditampilkannya berubah
+ * di database (termasuk oleh client lain)
+ */
+public interface RefreshableView {
+
+    Set<String> watchedTables();
+
+    /**
+     * Dipanggil di FX thread
+     */
+    void refresh();
+}
@@ -0,0 +1,169 @@
+package com.example.opp.view;
+
+import com.example.opp.model.Room;
+import com.example.opp.model.RoomStatus;
+import com.example.opp.service.ImageCache;
+import javafx.application.Platform;
+import javafx.beans.binding.Bindings;
+import javafx.beans.binding.StringBinding;
+import javafx.beans.property.IntegerProperty;
+import javafx.beans.property.ObjectProperty;
+import javafx.beans.property.ReadOnlyObjectProperty;
+import javafx.beans.property.SimpleIntegerProperty;
+import javafx.beans.property.SimpleObjectProperty;
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.control.Label;
+import javafx.scene.image.Image;
+import javafx.scene.image.ImageView;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.Region;
+import javafx.scene.layout.StackPane;
+import javafx.scene.layout.VBox;
+
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Kartu satu kamar di grid kamar. Node dibuat sekali; saat kartu dipakai ulang untuk kamar lain
+ * cukup {@link #setRoom} dan label, style status, serta gambar ikut berubah lewat binding.
+ * Objek Room yang sama boleh di-set lagi setelah isinya berubah.
+ */
+public class RoomCard extends VBox {
+
+    public static final double WIDTH = 200;
+    public static final double IMAGE_HEIGHT = 120;
+
+    private final ObjectProperty<Room> room = new SimpleObjectProperty<>(this, "room");
+    // Dinaikkan tiap setRoom supaya binding ikut dihitung ulang walau objek Room-nya sama
+    private final IntegerProperty revision = new SimpleIntegerProperty();
+    private final ImageCache imageCache = ImageCache.getInstance();
+    private final ImageView imageView = new ImageView();
+    private final Region dot = new Region();
+    private RoomStatus shownStatus;
+    private String imageUrl;
+
+    public RoomCard(Consumer<Room> onOpen) {
+        super(8);
+        getStyleClass().add("room-card");
+        setPadding(new Insets(0));
+        setPrefWidth(WIDTH);
+        setAlignment(Pos.TOP_LEFT);
+
+        imageView.setFitWidth(WIDTH);
+        imageView.setFitHeight(IMAGE_HEIGHT);
+        imageView.setPreserveRatio(false);
+        // Latar abu-abu jadi placeholder selama foto dimuat atau jika kamar tidak punya foto
+        StackPane imageBox = new StackPane(imageView);
+        imageBox.getStyleClass().add("room-image");
+        imageBox.setMinSize(WIDTH, IMAGE_HEIGHT);
+        imageBox.setMaxSize(WIDTH, IMAGE_HEIGHT);
+
+        VBox content = new VBox(6);
+        content.setPadding(new Insets(12));
+
+        Label roomNum = label("room-number", Room::getRoomNumber);
+        Label typeLabel = label("room-type",
+            r -> r.getRoomType() != null ? r.getRoomType().getName() : "Standard");
+        Label floorLabel = label("room-floor", r -> "Lantai " + r.getFloor());
+
+        HBox statusBox = new HBox(6);
+        statusBox.setAlignment(Pos.CENTER_LEFT);
+        dot.getStyleClass().add("status-dot");
+        dot.setPrefSize(8, 8);
+        Label statusLabel = label("room-status-text", r -> formatStatus(r.getStatus()));
+        statusBox.getChildren().addAll(dot, statusLabel);
+
+        Label priceLabel = label("room-price",
+            r -> (r.getRoomType() != null ? r.getRoomType().getFormattedPrice() : "-") + "/malam");
+
+        content.getChildren().addAll(roomNum, typeLabel, floorLabel, statusBox, priceLabel);
+        getChildren().addAll(imageBox, content);
+
+        setOnMouseClicked(e -> {
+            if (getRoom() != null) onOpen.accept(getRoom());
+        });
+    }
+
+    public ReadOnlyObjectProperty<Room> roomProperty() {
+        return room;
+    }
+
+    public Room getRoom() {
+        return room.get();
+    }
+
+    public void setRoom(Room value) {
+        room.set(value);
+        revision.set(revision.get() + 1);
+        updateStatusStyle(value != null ? value.getStatus() : null);
+        updateImage(value);
+    }
+
+    public static String formatStatus(RoomStatus status) {
+        return switch (status) {
+            case AVAILABLE -> "Tersedia";
+            case OCCUPIED -> "Terisi";
+            case RESERVED -> "Dipesan";
+            case MAINTENANCE -> "Perbaikan";
+        };
+    }
+
+    private static String statusClass(RoomStatus status) {
+        return switch (status) {
+            case AVAILABLE -> "room-available";
+            case OCCUPIED -> "room-occupied";
+            case RESERVED -> "room-reserved";
+            case MAINTENANCE -> "room-maintenance";
+        };
+    }
+
+    private Label label(String styleClass, Function<Room, String> text) {
+        Label label = new Label();
+        label.getStyleClass().add(styleClass);
+        StringBinding binding = Bindings.createStringBinding(
+            () -> room.get() != null ? text.apply(room.get()) : "", room, revision);
+        label.textProperty().bind(binding);
+        return label;
+    }
+
+    private void updateStatusStyle(RoomStatus status) {
+        if (status == shownStatus) return;
+        if (shownStatus != null) {
+            getStyleClass().remove(statusClass(shownStatus));
+            dot.getStyleClass().remove(dotClass(shownStatus));
+        }
+        if (status != null) {
+            getStyleClass().add(statusClass(status));
+            dot.getStyleClass().add(dotClass(status));
+        }
+        shownStatus = status;
+    }
+
+    private static String dotClass(RoomStatus status) {
+        return "dot-" + status.name().toLowerCase();
+    }
+
+    // Gambar hanya diganti jika URL-nya berbeda dari yang sedang tampil
+    private void updateImage(Room current) {
+        String url = current != null && current.getRoomType() != null ? current.getRoomType().getImageUrl() : null;
+        if (Objects.equals(url, imageUrl)) return;
+        imageUrl = url;
+
+        if (url == null || url.isEmpty()) {
+            imageView.setImage(null);
+            return;
+        }
+        Image cached = imageCache.getIfPresent(url, WIDTH, IMAGE_HEIGHT);
+        imageView.setImage(cached);
+        if (cached != null) return;
+
+        imageCache.load(url, WIDTH, IMAGE_HEIGHT).whenComplete((image, error) -> Platform.runLater(() -> {
+            // Kartu bisa sudah dipakai untuk kamar lain selama gambar dimuat
+            if (url.equals(imageUrl)) {
+                imageView.setImage(error == null ? image : null);
+            }
+        }));
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.opp.view;
+
+import com.example.opp.model.Room;
+import javafx.geometry.Insets;
+import javafx.scene.control.ListCell;
+import javafx.scene.control.ListView;
+import javafx.scene.layout.HBox;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Grid kartu kamar yang tervirtualisasi: setiap baris ListView berisi beberapa {@link RoomCard}
+ * sesuai lebar yang tersedia. Hanya baris yang terlihat punya node, dan cell beserta kartunya
+ * dipakai ulang saat scroll atau saat daftar kamar diganti (filter, refresh).
+ */
+public class RoomTileView extends ListView<List<Room>> {
+
+    private static final double GAP = 16;
+
+    private List<Room> rooms = List.of();
+    private int columns = 1;
+    private Consumer<Room> onOpen = room -> {};
+
+    public RoomTileView() {
+        getStyleClass().add("room-tile-view");
+        setFocusTraversable(false);
+        setCellFactory(list -> new RowCell());
+        widthProperty().addListener((obs, old, width) -> {
+            int fit = columnsFor(width.doubleValue());
+            if (fit != columns) {
+                columns = fit;
+                rebuildRows();
+            }
+        });
+    }
+
+    public void setRooms(List<Room> rooms) {
+        this.rooms = List.copyOf(rooms);
+        rebuildRows();
+    }
+
+    public List<Room> getRooms() {
+        return rooms;
+    }
+
+    /**
+     * Dipanggil saat kartu kamar diklik
+     */
+    public void setOnOpen(Consumer<Room> onOpen) {
+        this.onOpen = onOpen;
+    }
+
+    private int columnsFor(double width) {
+        // Sisakan ruang untuk scrollbar vertikal dan padding cell
+        double usable = width - 2 * GAP - 16;
+        return Math.max(1, (int) ((usable + GAP) / (RoomCard.WIDTH + GAP)));
+    }
+
+    private void rebuildRows() {
+        List<List<Room>> rows = new ArrayList<>((rooms.size() + columns - 1) / columns);
+        for (int i = 0; i < rooms.size(); i += columns) {
+            rows.add(rooms.subList(i, Math.min(rooms.size(), i + columns)));
+        }
+        getItems().setAll(rows);
+    }
+
+    private final class RowCell extends ListCell<List<Room>> {
+
+        private final HBox row = new HBox(GAP);
+        private final List<RoomCard> cards = new ArrayList<>();
+
+        RowCell() {
+            row.setPadding(new Insets(GAP / 2, GAP, GAP / 2, GAP));
+            getStyleClass().add("room-tile-row");
+        }
+
+        @Override
+        protected void updateItem(List<Room> item, boolean empty) {
+            super.updateItem(item, empty);
+            if (empty || item == null) {
+                for (RoomCard card : cards) {
+                    card.setRoom(null);
+                }
+                setGraphic(null);
+                return;
+            }
+
+            while (cards.size() < item.size()) {
+                cards.add(new RoomCard(room -> onOpen.accept(room)));
+            }
+            for (int i = 0; i < item.size(); i++) {
+                cards.get(i).setRoom(item.get(i));
+            }
+            // Kartu lebih tetap disimpan untuk dipakai lagi, hanya dilepas dari baris
+            if (row.getChildren().size() != item.size()) {
+                row.getChildren().setAll(cards.subList(0, item.size()));
+            }
+            setGraphic(row);
+        }
+    }
+}
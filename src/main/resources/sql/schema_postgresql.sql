@@ -50,6 +50,8 @@ CREATE TABLE IF NOT EXISTS room_types (
     created_at TIMESTAMPTZ DEFAULT NOW()
 );
 
+ALTER TABLE room_types ADD COLUMN IF NOT EXISTS image_url TEXT;
+
 
 -- ============================================
 -- 4. ROOMS TABLE
@@ -86,6 +88,12 @@ CREATE TABLE IF NOT EXISTS guests (
 CREATE INDEX IF NOT EXISTS idx_guests_id_number ON guests(id_number);
 CREATE INDEX IF NOT EXISTS idx_guests_name ON guests(full_name);
 
+-- Pencarian substring (ILIKE '%x%') dan fuzzy (similarity / %) lewat trigram
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE INDEX IF NOT EXISTS idx_guests_name_trgm ON guests USING GIN (full_name gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_guests_id_number_trgm ON guests USING GIN (id_number gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_guests_phone_trgm ON guests USING GIN (phone gin_trgm_ops);
+
 -- ============================================
 -- 6. BOOKINGS TABLE
 -- ============================================
@@ -114,7 +122,122 @@ CREATE TABLE IF NOT EXISTS bookings (
 CREATE INDEX IF NOT EXISTS idx_bookings_code ON bookings(booking_code);
 CREATE INDEX IF NOT EXISTS idx_bookings_status ON bookings(status);
 CREATE INDEX IF NOT EXISTS idx_bookings_dates ON bookings(check_in_date, check_out_date);
+CREATE INDEX IF NOT EXISTS idx_bookings_check_out ON bookings(check_out_date);
 CREATE INDEX IF NOT EXISTS idx_bookings_source ON bookings(booking_source);
+-- Urutan keyset daftar booking (terbaru dulu)
+CREATE INDEX IF NOT EXISTS idx_bookings_created ON bookings(created_at DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_bookings_code_trgm ON bookings USING GIN (booking_code gin_trgm_ops);
+
+-- Satu kamar tidak boleh punya dua booking aktif yang overlap (rentang [check_in, check_out))
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
+DO $$
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = 'excl_bookings_room_dates') THEN
+        ALTER TABLE bookings ADD CONSTRAINT excl_bookings_room_dates
+            EXCLUDE USING gist (room_id WITH =, daterange(check_in_date, check_out_date, '[)') WITH &&)
+            WHERE (status NOT IN ('CANCELLED', 'CHECKED_OUT'));
+    END IF;
+END $$;
+
+-- ============================================
+-- 6b. DAILY STATS ROLLUP
+-- Dirawat oleh trigger di bookings, jadi booking dari desktop, web maupun SQL langsung
+-- ikut terhitung; isi awal (backfill) dengan DailyStatsRebuilder
+-- ============================================
+CREATE TABLE IF NOT EXISTS daily_stats (
+    stat_date DATE NOT NULL,
+    room_type_id BIGINT NOT NULL REFERENCES room_types(id) ON DELETE CASCADE,
+    check_ins INT NOT NULL DEFAULT 0,
+    check_outs INT NOT NULL DEFAULT 0,
+    revenue DECIMAL(14,2) NOT NULL DEFAULT 0,
+    PRIMARY KEY (stat_date, room_type_id)
+);
+
+-- Malam terisi dihitung laporan langsung dari booking periode, tidak disimpan di rollup
+ALTER TABLE daily_stats DROP COLUMN IF EXISTS occupied_nights;
+
+-- Hitung ulang rollup untuk tanggal [p_from, p_to] dan satu tipe kamar (NULL = semua tipe).
+-- Check-in, check-out dan pendapatan menghitung semua booking selain CANCELLED
+CREATE OR REPLACE FUNCTION refresh_daily_stats(p_room_type_id BIGINT, p_from DATE, p_to DATE)
+RETURNS INT AS $$
+DECLARE
+    written INT;
+BEGIN
+    IF p_room_type_id IS NOT NULL THEN
+        -- Refresh yang tumpang tindih untuk tipe kamar yang sama berjalan bergiliran
+        PERFORM pg_advisory_xact_lock(3489, p_room_type_id::INT);
+        DELETE FROM daily_stats
+        WHERE room_type_id = p_room_type_id AND stat_date BETWEEN p_from AND p_to;
+    END IF;
+
+    INSERT INTO daily_stats (stat_date, room_type_id, check_ins, check_outs, revenue)
+    SELECT s.stat_date, s.room_type_id, SUM(s.check_ins), SUM(s.check_outs), SUM(s.revenue) FROM (
+        SELECT b.check_in_date AS stat_date, r.room_type_id, 1 AS check_ins, 0 AS check_outs, b.total_amount AS revenue
+        FROM bookings b JOIN rooms r ON r.id = b.room_id
+        WHERE b.status <> 'CANCELLED' AND b.check_in_date BETWEEN p_from AND p_to
+        AND (p_room_type_id IS NULL OR r.room_type_id = p_room_type_id)
+        UNION ALL
+        SELECT b.check_out_date, r.room_type_id, 0, 1, 0
+        FROM bookings b JOIN rooms r ON r.id = b.room_id
+        WHERE b.status <> 'CANCELLED' AND b.check_out_date BETWEEN p_from AND p_to
+        AND (p_room_type_id IS NULL OR r.room_type_id = p_room_type_id)
+    ) AS s
+    GROUP BY s.stat_date, s.room_type_id
+    ON CONFLICT (stat_date, room_type_id) DO UPDATE SET check_ins = EXCLUDED.check_ins,
+        check_outs = EXCLUDED.check_outs, revenue = EXCLUDED.revenue;
+
+    GET DIAGNOSTICS written = ROW_COUNT;
+    RETURN written;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Rentang lama dan baru booking dihitung ulang di transaksi yang sama dengan perubahannya
+CREATE OR REPLACE FUNCTION daily_stats_on_booking_change()
+RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP = 'UPDATE'
+       AND (OLD.room_id, OLD.status, OLD.check_in_date, OLD.check_out_date, OLD.total_amount)
+           IS NOT DISTINCT FROM (NEW.room_id, NEW.status, NEW.check_in_date, NEW.check_out_date, NEW.total_amount) THEN
+        RETURN NULL;
+    END IF;
+
+    IF TG_OP = 'DELETE'
+       OR (TG_OP = 'UPDATE' AND (OLD.room_id, OLD.check_in_date, OLD.check_out_date)
+           IS DISTINCT FROM (NEW.room_id, NEW.check_in_date, NEW.check_out_date)) THEN
+        PERFORM refresh_daily_stats(r.room_type_id, OLD.check_in_date, OLD.check_out_date)
+        FROM rooms r WHERE r.id = OLD.room_id;
+    END IF;
+
+    IF TG_OP IN ('INSERT', 'UPDATE') THEN
+        PERFORM refresh_daily_stats(r.room_type_id, NEW.check_in_date, NEW.check_out_date)
+        FROM rooms r WHERE r.id = NEW.room_id;
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS trg_bookings_daily_stats ON bookings;
+CREATE TRIGGER trg_bookings_daily_stats AFTER INSERT OR UPDATE OR DELETE ON bookings
+    FOR EACH ROW EXECUTE FUNCTION daily_stats_on_booking_change();
+
+-- Kamar yang pindah tipe memindahkan seluruh booking-nya ke baris tipe kamar yang baru
+CREATE OR REPLACE FUNCTION daily_stats_on_room_type_change()
+RETURNS TRIGGER AS $$
+BEGIN
+    PERFORM refresh_daily_stats(t.room_type_id, d.from_date, d.to_date)
+    FROM (SELECT MIN(check_in_date) AS from_date, MAX(check_out_date) AS to_date
+          FROM bookings WHERE room_id = NEW.id) AS d
+    CROSS JOIN (VALUES (OLD.room_type_id), (NEW.room_type_id)) AS t(room_type_id)
+    WHERE d.from_date IS NOT NULL;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS trg_rooms_daily_stats ON rooms;
+CREATE TRIGGER trg_rooms_daily_stats AFTER UPDATE OF room_type_id ON rooms
+    FOR EACH ROW WHEN (OLD.room_type_id IS DISTINCT FROM NEW.room_type_id)
+    EXECUTE FUNCTION daily_stats_on_room_type_change();
 
 -- ============================================
 -- 7. AUTO UPDATE TIMESTAMP FUNCTION
@@ -143,6 +266,39 @@ CREATE TRIGGER trg_bookings_updated BEFORE UPDATE ON bookings FOR EACH ROW EXECU
 DROP TRIGGER IF EXISTS trg_customers_updated ON customers;
 CREATE TRIGGER trg_customers_updated BEFORE UPDATE ON customers FOR EACH ROW EXECUTE FUNCTION update_updated_at();
 
+-- ============================================
+-- 7b. CHANGE NOTIFICATIONS
+-- Setiap perubahan baris dikirim ke channel table_changes sebagai 'tabel:OPERASI:id';
+-- dipakai client desktop untuk invalidasi cache dan refresh layar.
+-- NOTIFY baru terkirim saat transaksi commit, jadi rollback tidak menghasilkan event.
+-- ============================================
+CREATE OR REPLACE FUNCTION notify_change()
+RETURNS TRIGGER AS $$
+DECLARE
+    row_id BIGINT;
+BEGIN
+    IF TG_OP = 'DELETE' THEN
+        row_id := OLD.id;
+    ELSE
+        row_id := NEW.id;
+    END IF;
+    PERFORM pg_notify('table_changes', TG_TABLE_NAME || ':' || TG_OP || ':' || row_id);
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS trg_rooms_notify ON rooms;
+CREATE TRIGGER trg_rooms_notify AFTER INSERT OR UPDATE OR DELETE ON rooms FOR EACH ROW EXECUTE FUNCTION notify_change();
+
+DROP TRIGGER IF EXISTS trg_room_types_notify ON room_types;
+CREATE TRIGGER trg_room_types_notify AFTER INSERT OR UPDATE OR DELETE ON room_types FOR EACH ROW EXECUTE FUNCTION notify_change();
+
+DROP TRIGGER IF EXISTS trg_bookings_notify ON bookings;
+CREATE TRIGGER trg_bookings_notify AFTER INSERT OR UPDATE OR DELETE ON bookings FOR EACH ROW EXECUTE FUNCTION notify_change();
+
+DROP TRIGGER IF EXISTS trg_guests_notify ON guests;
+CREATE TRIGGER trg_guests_notify AFTER INSERT OR UPDATE OR DELETE ON guests FOR EACH ROW EXECUTE FUNCTION notify_change();
+
 
 -- ============================================
 -- 8. VIEWS
@@ -0,0 +1,32 @@
+package com.example.opp.database;
+
+import org.junit.jupiter.api.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test parsing payload trigger notify_change() tanpa database
+ */
+class ChangeEventTest {
+
+    @Test
+    @DisplayName("Should parse table, operation and id from the payload")
+    void testParse() {
+        ChangeEvent event = ChangeEvent.parse("room_types:UPDATE:42");
+
+        assertEquals("room_types", event.table());
+        assertEquals(ChangeEvent.Operation.UPDATE, event.operation());
+        assertEquals(42, event.id());
+        assertTrue(event.isFor("room_types"));
+        System.out.println("✓ " + event);
+    }
+
+    @Test
+    @DisplayName("Should reject malformed payloads")
+    void testMalformed() {
+        assertThrows(IllegalArgumentException.class, () -> ChangeEvent.parse("bookings:INSERT"));
+        assertThrows(IllegalArgumentException.class, () -> ChangeEvent.parse("bookings:TRUNCATE:1"));
+        assertThrows(IllegalArgumentException.class, () -> ChangeEvent.parse("bookings:DELETE:abc"));
+        System.out.println("✓ Malformed payloads rejected");
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.opp.database;
+
+import com.example.opp.config.AppConfig;
+import com.example.opp.repository.RoomTypeRepository;
+import org.junit.jupiter.api.*;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Membandingkan latency findById dengan dan tanpa cache PreparedStatement.
+ * Hasil dicetak ke console; jalankan dengan db.server-prepare=true untuk melihat efek server-side prepare.
+ */
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class StatementCacheBenchmarkTest {
+
+    private static final String SQL = "SELECT * FROM room_types WHERE id = ?";
+    private static final int WARMUP = 50;
+    private static final int ITERATIONS = 500;
+
+    private static DatabaseManager dbManager;
+
+    @BeforeAll
+    static void setup() throws Exception {
+        AppConfig.load();
+        dbManager = DatabaseManager.getInstance();
+        dbManager.connect();
+    }
+
+    @Test
+    @Order(1)
+    @DisplayName("Should reuse cached statement on the same connection")
+    void testStatementReuse() throws Exception {
+        Connection conn = dbManager.getConnection();
+        try {
+            PreparedStatement first = dbManager.prepareStatement(conn, SQL);
+            dbManager.releaseStatement(conn, first);
+            PreparedStatement second = dbManager.prepareStatement(conn, SQL);
+            dbManager.releaseStatement(conn, second);
+
+            assertSame(first, second);
+            System.out.println("✓ PreparedStatement reused from cache");
+        } finally {
+            dbManager.releaseConnection(conn);
+        }
+    }
+
+    @Test
+    @Order(2)
+    @DisplayName("Benchmark findById: prepare per call vs cached statement")
+    void benchmarkFindById() throws Exception {
+        Connection conn = dbManager.getConnection();
+        try {
+            for (int i = 0; i < WARMUP; i++) {
+                uncached(conn);
+                cached(conn);
+            }
+
+            long start = System.nanoTime();
+            for (int i = 0; i < ITERATIONS; i++) {
+                uncached(conn);
+            }
+            long uncachedNanos = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for (int i = 0; i < ITERATIONS; i++) {
+                cached(conn);
+            }
+            long cachedNanos = System.nanoTime() - start;
+
+            System.out.printf("✓ findById tanpa cache: %.1f us/op%n", uncachedNanos / 1000.0 / ITERATIONS);
+            System.out.printf("✓ findById dengan cache: %.1f us/op%n", cachedNanos / 1000.0 / ITERATIONS);
+        } finally {
+            dbManager.releaseConnection(conn);
+        }
+    }
+
+    @Test
+    @Order(3)
+    @DisplayName("Benchmark RoomTypeRepository.findById end to end")
+    void benchmarkRepository() throws Exception {
+        RoomTypeRepository repository = new RoomTypeRepository();
+        for (int i = 0; i < WARMUP; i++) {
+            repository.findById(1L);
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            repository.findById(1L);
+        }
+        long nanos = System.nanoTime() - start;
+
+        System.out.printf("✓ RoomTypeRepository.findById: %.1f us/op%n", nanos / 1000.0 / ITERATIONS);
+        System.out.println("✓ Pool: " + dbManager.getPoolStats());
+    }
+
+    private void uncached(Connection conn) throws Exception {
+        try (PreparedStatement stmt = conn.prepareStatement(SQL)) {
+            stmt.setLong(1, 1L);
+            try (ResultSet rs = stmt.executeQuery()) {
+                rs.next();
+            }
+        }
+    }
+
+    private void cached(Connection conn) throws Exception {
+        PreparedStatement stmt = dbManager.prepareStatement(conn, SQL);
+        try {
+            stmt.setLong(1, 1L);
+            try (ResultSet rs = stmt.executeQuery()) {
+                rs.next();
+            }
+        } finally {
+            dbManager.releaseStatement(conn, stmt);
+        }
+    }
+
+    @AfterAll
+    static void cleanup() {
+        if (dbManager != null) {
+            dbManager.disconnect();
+        }
+    }
+}
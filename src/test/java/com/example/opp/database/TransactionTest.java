@@ -0,0 +1,93 @@
+package com.example.opp.database;
+
+import com.example.opp.config.AppConfig;
+import com.example.opp.model.Guest;
+import com.example.opp.repository.GuestRepository;
+import org.junit.jupiter.api.*;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class TransactionTest {
+
+    private static DatabaseManager dbManager;
+    private static GuestRepository guestRepository;
+    private static final String PREFIX = "TXTEST" + System.nanoTime() % 1_000_000;
+
+    @BeforeAll
+    static void setup() throws Exception {
+        AppConfig.load();
+        dbManager = DatabaseManager.getInstance();
+        dbManager.connect();
+        guestRepository = new GuestRepository();
+    }
+
+    @Test
+    @Order(1)
+    @DisplayName("Should join the ambient transaction from repositories")
+    void testThreadBoundConnection() throws Exception {
+        Connection[] seen = new Connection[2];
+        dbManager.inTransaction(conn -> {
+            dbManager.executeWithConnection(c -> { seen[0] = c; });
+            dbManager.executeWithConnection(c -> { seen[1] = c; });
+            assertTrue(dbManager.isInTransaction());
+            return null;
+        });
+
+        assertSame(seen[0], seen[1]);
+        assertFalse(dbManager.isInTransaction());
+        System.out.println("✓ Repository calls share the transaction connection");
+    }
+
+    @Test
+    @Order(2)
+    @DisplayName("Should roll back every statement when the callback fails")
+    void testRollback() throws Exception {
+        String idNumber = PREFIX + "-rb";
+        assertThrows(IllegalStateException.class, () -> dbManager.inTransaction(conn -> {
+            guestRepository.save(new Guest(idNumber, "Rollback Guest", "0800"));
+            throw new IllegalStateException("abort");
+        }));
+
+        assertFalse(guestRepository.existsByIdNumber(idNumber));
+        System.out.println("✓ Transaction rolled back");
+    }
+
+    @Test
+    @Order(3)
+    @DisplayName("Should roll back only the nested savepoint")
+    void testSavepoint() throws Exception {
+        String outer = PREFIX + "-outer";
+        String inner = PREFIX + "-inner";
+        long outerId = dbManager.inTransaction(conn -> {
+            long id = guestRepository.save(new Guest(outer, "Outer Guest", "0801"));
+            try {
+                dbManager.inTransaction(nested -> {
+                    guestRepository.save(new Guest(inner, "Inner Guest", "0802"));
+                    throw new SQLException("nested failure");
+                });
+            } catch (SQLException expected) {
+                // Hanya savepoint yang dibatalkan
+            }
+            return id;
+        });
+
+        try {
+            assertTrue(guestRepository.existsByIdNumber(outer));
+            assertFalse(guestRepository.existsByIdNumber(inner));
+            System.out.println("✓ Savepoint rolled back, outer transaction committed");
+        } finally {
+            guestRepository.delete(outerId);
+        }
+    }
+
+    @AfterAll
+    static void cleanup() {
+        if (dbManager != null) {
+            dbManager.disconnect();
+        }
+    }
+}
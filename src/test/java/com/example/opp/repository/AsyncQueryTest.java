@@ -0,0 +1,94 @@
+package com.example.opp.repository;
+
+import com.example.opp.config.AppConfig;
+import com.example.opp.database.DatabaseManager;
+import org.junit.jupiter.api.*;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class AsyncQueryTest {
+
+    private static final int QUERIES = 4;
+    private static final long SLEEP_MS = 300;
+
+    private static DatabaseManager dbManager;
+    private static SleepRepository repository;
+
+    @BeforeAll
+    static void setup() throws Exception {
+        AppConfig.load();
+        dbManager = DatabaseManager.getInstance();
+        dbManager.connect();
+        repository = new SleepRepository();
+    }
+
+    @Test
+    @Order(1)
+    @DisplayName("Independent async queries should finish in the time of the slowest one")
+    void testFanOut() {
+        // Pemanasan supaya koneksi pool sudah terbuka
+        repository.sleep(0).join();
+
+        long start = System.nanoTime();
+        List<CompletableFuture<Optional<Integer>>> futures = new ArrayList<>();
+        for (int i = 0; i < QUERIES; i++) {
+            futures.add(repository.sleep(SLEEP_MS));
+        }
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        for (CompletableFuture<Optional<Integer>> future : futures) {
+            assertEquals(Optional.of(1), future.join());
+        }
+        assertTrue(elapsedMs < QUERIES * SLEEP_MS, "Queries ran sequentially: " + elapsedMs + " ms");
+        System.out.println("✓ " + QUERIES + " x " + SLEEP_MS + " ms queries finished in " + elapsedMs + " ms");
+    }
+
+    @Test
+    @Order(2)
+    @DisplayName("Should complete exceptionally with the original SQLException")
+    void testFailure() {
+        CompletionException error = assertThrows(CompletionException.class,
+            () -> repository.broken().join());
+
+        assertInstanceOf(SQLException.class, error.getCause());
+        System.out.println("✓ SQLException propagated through the future");
+    }
+
+    @AfterAll
+    static void cleanup() {
+        if (dbManager != null) {
+            dbManager.disconnect();
+        }
+    }
+
+    private static final class SleepRepository extends BaseRepository<Integer, Long> {
+
+        CompletableFuture<Optional<Integer>> sleep(long millis) {
+            return queryOneAsync("SELECT 1 AS n, pg_sleep(?)", millis / 1000.0);
+        }
+
+        CompletableFuture<Integer> broken() {
+            return executeAsync("UPDATE table_that_does_not_exist SET x = 1");
+        }
+
+        @Override
+        protected Integer mapRow(ResultSet rs) throws SQLException {
+            return rs.getInt("n");
+        }
+
+        @Override
+        protected String getTableName() {
+            return "bookings";
+        }
+    }
+}
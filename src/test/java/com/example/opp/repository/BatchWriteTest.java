@@ -0,0 +1,109 @@
+package com.example.opp.repository;
+
+import com.example.opp.config.AppConfig;
+import com.example.opp.database.DatabaseManager;
+import org.junit.jupiter.api.*;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class BatchWriteTest {
+
+    private static final int ROWS = 1_200;
+
+    private static DatabaseManager dbManager;
+    private static NoteRepository repository;
+
+    @BeforeAll
+    static void setup() throws Exception {
+        AppConfig.load();
+        dbManager = DatabaseManager.getInstance();
+        dbManager.connect();
+        repository = new NoteRepository();
+    }
+
+    @Test
+    @Order(1)
+    @DisplayName("Should insert a batch and return generated keys in order")
+    void testBatchInsert() throws Exception {
+        List<String> notes = new ArrayList<>();
+        for (int i = 1; i <= ROWS; i++) {
+            notes.add("note-" + i);
+        }
+
+        dbManager.inTransaction(conn -> {
+            createTable(conn);
+            List<Long> ids = repository.insertNotes(notes);
+
+            assertEquals(ROWS, ids.size());
+            assertEquals(notes.get(0), repository.textOf(ids.get(0)));
+            assertEquals(notes.get(ROWS - 1), repository.textOf(ids.get(ROWS - 1)));
+            assertEquals(ROWS, ids.stream().distinct().count());
+            System.out.println("✓ Batch inserted " + ids.size() + " rows with generated keys");
+            return null;
+        });
+    }
+
+    @Test
+    @Order(2)
+    @DisplayName("Should update a batch and report changed rows")
+    void testBatchUpdate() throws Exception {
+        dbManager.inTransaction(conn -> {
+            createTable(conn);
+            List<Long> ids = repository.insertNotes(List.of("a", "b", "c"));
+            List<Long> missing = new ArrayList<>(ids);
+            missing.add(-1L);
+
+            assertEquals(3, repository.markDone(missing));
+            assertEquals("a!", repository.textOf(ids.get(0)));
+            assertTrue(repository.insertNotes(List.of()).isEmpty());
+            System.out.println("✓ Batch update counted only existing rows");
+            return null;
+        });
+    }
+
+    @AfterAll
+    static void cleanup() {
+        if (dbManager != null) {
+            dbManager.disconnect();
+        }
+    }
+
+    private static void createTable(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE TEMP TABLE batch_notes (id BIGSERIAL PRIMARY KEY, text TEXT NOT NULL) ON COMMIT DROP");
+        }
+    }
+
+    private static final class NoteRepository extends BaseRepository<String, Long> {
+
+        List<Long> insertNotes(List<String> notes) throws SQLException {
+            return batchInsert("INSERT INTO batch_notes (text) VALUES (?)", notes, note -> new Object[] { note });
+        }
+
+        int markDone(List<Long> ids) throws SQLException {
+            return batchUpdate("UPDATE batch_notes SET text = text || '!' WHERE id = ?", ids, id -> new Object[] { id });
+        }
+
+        String textOf(Long id) throws SQLException {
+            return findById("id", id).orElse(null);
+        }
+
+        @Override
+        protected String mapRow(ResultSet rs) throws SQLException {
+            return rs.getString("text");
+        }
+
+        @Override
+        protected String getTableName() {
+            return "batch_notes";
+        }
+    }
+}
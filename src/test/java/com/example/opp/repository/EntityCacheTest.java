@@ -0,0 +1,108 @@
+package com.example.opp.repository;
+
+import org.junit.jupiter.api.*;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test cache read-through tanpa database, waktu dikendalikan lewat ticker palsu
+ */
+class EntityCacheTest {
+
+    private final AtomicLong now = new AtomicLong();
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private EntityCache<Long, String> cache(int maxSize) {
+        return new EntityCache<>("test", maxSize, TimeUnit.SECONDS.toNanos(60), now::get);
+    }
+
+    private Optional<String> load(Long id) {
+        loads.incrementAndGet();
+        return Optional.of("value-" + id);
+    }
+
+    @Test
+    @DisplayName("Should load once and serve later reads from the cache")
+    void testReadThrough() throws Exception {
+        EntityCache<Long, String> cache = cache(10);
+
+        assertEquals(Optional.of("value-1"), cache.get(1L, this::load));
+        assertEquals(Optional.of("value-1"), cache.get(1L, this::load));
+
+        assertEquals(1, loads.get());
+        assertEquals(1, cache.getStats().hits());
+        assertEquals(1, cache.getStats().misses());
+        System.out.println("✓ " + cache.getStats());
+    }
+
+    @Test
+    @DisplayName("Should expire entries after the TTL")
+    void testExpiry() throws Exception {
+        EntityCache<Long, String> cache = cache(10);
+        cache.get(1L, this::load);
+
+        now.addAndGet(TimeUnit.SECONDS.toNanos(61));
+        cache.get(1L, this::load);
+
+        assertEquals(2, loads.get());
+        assertEquals(1, cache.getStats().expirations());
+        System.out.println("✓ Entry reloaded after TTL");
+    }
+
+    @Test
+    @DisplayName("Should evict the least recently used entry when full")
+    void testEviction() throws Exception {
+        EntityCache<Long, String> cache = cache(2);
+        cache.get(1L, this::load);
+        cache.get(2L, this::load);
+        cache.get(1L, this::load);
+        cache.get(3L, this::load);
+
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.getStats().evictions());
+        cache.get(1L, this::load);
+        assertEquals(3, loads.get());
+        System.out.println("✓ Least recently used entry evicted");
+    }
+
+    @Test
+    @DisplayName("Should only bulk load ids that are not cached")
+    void testGetAll() throws Exception {
+        EntityCache<Long, String> cache = cache(10);
+        cache.get(1L, this::load);
+
+        Map<Long, String> values = cache.getAll(List.of(1L, 2L, 2L, 3L), ids -> {
+            assertEquals(List.of(2L, 3L), ids);
+            Map<Long, String> loaded = new LinkedHashMap<>();
+            ids.forEach(id -> loaded.put(id, "value-" + id));
+            return loaded;
+        });
+
+        assertEquals(List.of(1L, 2L, 3L), List.copyOf(values.keySet()));
+        assertEquals(3, cache.size());
+        System.out.println("✓ Bulk load skipped cached ids");
+    }
+
+    @Test
+    @DisplayName("Should not cache a load that raced with an invalidation")
+    void testInvalidationDuringLoad() throws Exception {
+        EntityCache<Long, String> cache = cache(10);
+
+        cache.get(1L, id -> {
+            cache.invalidate(id);
+            return Optional.of("stale");
+        });
+
+        assertEquals(0, cache.size());
+        assertEquals(Optional.of("value-1"), cache.get(1L, this::load));
+        System.out.println("✓ Stale load discarded after invalidation");
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.opp.repository;
+
+import com.example.opp.config.AppConfig;
+import com.example.opp.database.DatabaseManager;
+import com.example.opp.model.DailyReportRow;
+import org.junit.jupiter.api.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReportRepositoryTest {
+
+    private static DatabaseManager dbManager;
+    private static ReportRepository reportRepository;
+
+    @BeforeAll
+    static void setup() throws Exception {
+        AppConfig.load();
+        dbManager = DatabaseManager.getInstance();
+        dbManager.connect();
+        reportRepository = new ReportRepository();
+    }
+
+    @Test
+    @DisplayName("Should aggregate one year of daily rows in the database")
+    void testFindDailyRows() throws Exception {
+        LocalDate to = LocalDate.now();
+        LocalDate from = to.minusYears(1);
+
+        long start = System.nanoTime();
+        List<DailyReportRow> rows = reportRepository.findDailyRows(from, to);
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        for (int i = 0; i < rows.size(); i++) {
+            DailyReportRow row = rows.get(i);
+            assertFalse(row.date().isBefore(from) || row.date().isAfter(to));
+            if (i > 0) {
+                assertTrue(row.date().isBefore(rows.get(i - 1).date()));
+            }
+        }
+        System.out.println("✓ " + rows.size() + " daily rows in " + elapsedMs + " ms");
+    }
+
+    @AfterAll
+    static void cleanup() {
+        if (dbManager != null) {
+            dbManager.disconnect();
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.opp.repository;
+
+import com.example.opp.config.AppConfig;
+import com.example.opp.database.DatabaseManager;
+import org.junit.jupiter.api.*;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class StreamingQueryTest {
+
+    private static final int ROWS = 20_000;
+
+    private static DatabaseManager dbManager;
+    private static SeriesRepository repository;
+
+    @BeforeAll
+    static void setup() throws Exception {
+        AppConfig.load();
+        dbManager = DatabaseManager.getInstance();
+        dbManager.connect();
+        repository = new SeriesRepository();
+    }
+
+    @Test
+    @Order(1)
+    @DisplayName("Should visit every row with a cursor inside a transaction")
+    void testForEach() throws Exception {
+        AtomicLong sum = new AtomicLong();
+        boolean[] inTransaction = new boolean[1];
+        long rows = repository.forEach("SELECT n FROM generate_series(1, ?) n", n -> {
+            sum.addAndGet(n);
+            inTransaction[0] = dbManager.isInTransaction();
+        }, ROWS);
+
+        assertEquals(ROWS, rows);
+        assertEquals((long) ROWS * (ROWS + 1) / 2, sum.get());
+        assertTrue(inTransaction[0]);
+        assertFalse(dbManager.isInTransaction());
+        System.out.println("✓ Streamed " + rows + " rows with fetch size " + dbManager.getFetchSize());
+    }
+
+    @Test
+    @Order(2)
+    @DisplayName("Should expose rows as a Stream inside the callback")
+    void testStream() throws Exception {
+        long evens = repository.stream("SELECT n FROM generate_series(1, ?) n",
+            rows -> rows.filter(n -> n % 2 == 0).count(), ROWS);
+
+        assertEquals(ROWS / 2, evens);
+        System.out.println("✓ Stream pipeline counted " + evens + " rows");
+    }
+
+    @Test
+    @Order(3)
+    @DisplayName("Should surface the SQLException thrown while mapping a row")
+    void testMappingFailure() {
+        SQLException error = assertThrows(SQLException.class, () -> repository.stream(
+            "SELECT n AS wrong FROM generate_series(1, 3) n", rows -> rows.count()));
+
+        assertNotNull(error.getMessage());
+        System.out.println("✓ Mapping failure propagated as SQLException");
+    }
+
+    @AfterAll
+    static void cleanup() {
+        if (dbManager != null) {
+            dbManager.disconnect();
+        }
+    }
+
+    private static final class SeriesRepository extends BaseRepository<Integer, Long> {
+
+        @Override
+        protected Integer mapRow(ResultSet rs) throws SQLException {
+            return rs.getInt("n");
+        }
+
+        @Override
+        protected String getTableName() {
+            return "bookings";
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.example.opp.service;
+
+import com.example.opp.config.AppConfig;
+import com.example.opp.database.DatabaseManager;
+import com.example.opp.model.Booking;
+import com.example.opp.model.BookingStatus;
+import com.example.opp.repository.BookingRepository;
+import com.example.opp.repository.GuestRepository;
+import com.example.opp.repository.RoomRepository;
+import com.example.opp.repository.UserRepository;
+import org.junit.jupiter.api.*;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Stress test pembuatan booking: 64 writer serentak ke kamar yang sama tidak boleh menghasilkan double booking
+ */
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class BookingConcurrencyTest {
+
+    private static final int WRITERS = 64;
+
+    private static DatabaseManager dbManager;
+    private static BookingService bookingService;
+    private static BookingRepository bookingRepository;
+    private static Long guestId;
+    private static Long roomId;
+    private static Long userId;
+    private static LocalDate base;
+    private static final List<Long> createdIds = Collections.synchronizedList(new ArrayList<>());
+
+    @BeforeAll
+    static void setup() throws Exception {
+        AppConfig.load();
+        dbManager = DatabaseManager.getInstance();
+        dbManager.connect();
+        bookingService = new BookingService();
+        bookingRepository = new BookingRepository();
+
+        guestId = new GuestRepository().findAll().get(0).getId();
+        roomId = new RoomRepository().findAll().get(0).getId();
+        userId = new UserRepository().findAll().get(0).getId();
+        // Jauh di depan supaya tidak bentrok dengan data asli maupun run sebelumnya
+        base = LocalDate.now().plusYears(10).plusDays(ThreadLocalRandom.current().nextInt(3000));
+    }
+
+    @AfterAll
+    static void cleanup() throws Exception {
+        for (Long id : createdIds) {
+            // Trigger di bookings ikut menghitung ulang rollup daily_stats untuk tanggal booking ini
+            bookingRepository.delete(id);
+            RoomAvailabilityIndex.getInstance().remove(id);
+        }
+        System.out.println("✓ Removed " + createdIds.size() + " test bookings");
+    }
+
+    @Test
+    @Order(1)
+    @DisplayName("Only one of 64 concurrent writers can book the same dates")
+    void testSameRange() throws Exception {
+        LocalDate checkIn = base;
+        LocalDate checkOut = base.plusDays(2);
+
+        int succeeded = runWriters(i -> new LocalDate[] {checkIn, checkOut});
+
+        assertEquals(1, succeeded);
+        assertNoOverlaps();
+        System.out.println("✓ 1 of " + WRITERS + " writers succeeded, no double booking");
+    }
+
+    @Test
+    @Order(2)
+    @DisplayName("Staggered overlapping ranges never double-book")
+    void testStaggeredRanges() throws Exception {
+        LocalDate start = base.plusDays(30);
+
+        int succeeded = runWriters(i -> new LocalDate[] {start.plusDays(i % 16), start.plusDays(i % 16 + 3)});
+
+        assertTrue(succeeded >= 1);
+        assertNoOverlaps();
+        System.out.println("✓ " + succeeded + " non-overlapping bookings out of " + WRITERS + " writers");
+    }
+
+    private int runWriters(RangeFactory ranges) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(WRITERS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger succeeded = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+        try {
+            for (int i = 0; i < WRITERS; i++) {
+                LocalDate[] range = ranges.range(i);
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        Booking booking = bookingService.createBooking(guestId, roomId, range[0], range[1], userId);
+                        createdIds.add(booking.getId());
+                        succeeded.incrementAndGet();
+                    } catch (IllegalStateException expected) {
+                        // Kamar sudah terisi
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        return succeeded.get();
+    }
+
+    private void assertNoOverlaps() throws Exception {
+        List<Booking> bookings = bookingRepository.findByStatus(BookingStatus.CONFIRMED).stream()
+            .filter(b -> b.getRoomId().equals(roomId))
+            .toList();
+        for (int i = 0; i < bookings.size(); i++) {
+            for (int j = i + 1; j < bookings.size(); j++) {
+                Booking a = bookings.get(i);
+                Booking b = bookings.get(j);
+                boolean overlap = a.getCheckInDate().isBefore(b.getCheckOutDate())
+                    && b.getCheckInDate().isBefore(a.getCheckOutDate());
+                assertFalse(overlap, "Double booking: " + a.getBookingCode() + " and " + b.getBookingCode());
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface RangeFactory {
+        LocalDate[] range(int writer);
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.opp.service;
+
+import com.example.opp.config.AppConfig;
+import com.example.opp.database.DatabaseManager;
+import com.example.opp.model.DashboardSnapshot;
+import com.example.opp.repository.BookingRepository;
+import com.example.opp.repository.RoomRepository;
+import org.junit.jupiter.api.*;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class DashboardServiceTest {
+
+    private static DatabaseManager dbManager;
+    private static DashboardService dashboardService;
+
+    @BeforeAll
+    static void setup() throws Exception {
+        AppConfig.load();
+        dbManager = DatabaseManager.getInstance();
+        dbManager.connect();
+        dashboardService = new DashboardService();
+    }
+
+    @Test
+    @Order(1)
+    @DisplayName("Snapshot should match the sequential queries")
+    void testSnapshotMatchesRepositories() throws Exception {
+        DashboardSnapshot snapshot = dashboardService.loadSnapshot().join();
+
+        assertEquals(LocalDate.now(), snapshot.date());
+        assertEquals(new RoomRepository().getStatusSummary().total(), snapshot.rooms().total());
+        assertEquals(new BookingRepository().findTodayCheckInsWithDetails().size(), snapshot.checkIns().size());
+        assertEquals(new BookingRepository().findTodayCheckOutsWithDetails().size(), snapshot.checkOuts().size());
+        assertArrayEquals(new BookingService().getFreeRoomsPerNight(LocalDate.now(),
+            LocalDate.now().plusDays(DashboardService.FORECAST_NIGHTS)), snapshot.freeRoomsPerNight());
+        assertThrows(UnsupportedOperationException.class, () -> snapshot.checkIns().clear());
+        System.out.println("✓ Snapshot matches repository results");
+    }
+
+    @Test
+    @Order(2)
+    @DisplayName("Sections should run in parallel")
+    void testTimings() {
+        DashboardSnapshot.Timings timings = dashboardService.loadSnapshot().join().timings();
+        long sequential = timings.roomsMillis() + timings.checkInsMillis() + timings.checkOutsMillis();
+
+        assertTrue(timings.totalMillis() >= Math.max(timings.roomsMillis(),
+            Math.max(timings.checkInsMillis(), timings.checkOutsMillis())));
+        assertEquals(5, DashboardService.getSectionStats().size());
+        System.out.println("✓ Dashboard loaded in " + timings.totalMillis() + " ms (sections sum " + sequential + " ms)");
+    }
+
+    @AfterAll
+    static void cleanup() {
+        if (dbManager != null) {
+            dbManager.disconnect();
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.opp.service;
+
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import org.junit.jupiter.api.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test jendela baris keyset tanpa database; baris adalah angka yang turun seperti urutan terbaru dulu
+ */
+class KeysetWindowTest {
+
+    private static final int PAGE = 10;
+    private static final int MAX = 30;
+    private static final int TOTAL = 100;
+
+    private ObservableList<Integer> rows;
+    private KeysetWindow<Integer> window;
+
+    @BeforeEach
+    void setup() {
+        rows = FXCollections.observableArrayList();
+        window = new KeysetWindow<>(rows, PAGE, MAX);
+        window.reset(older(null, window.fetchSize()));
+    }
+
+    @Test
+    @DisplayName("Should load the first page and detect more rows")
+    void testReset() {
+        assertEquals(PAGE, rows.size());
+        assertEquals(TOTAL, window.first());
+        assertTrue(window.hasOlder());
+        assertFalse(window.hasNewer());
+        assertEquals(0, window.offset());
+        System.out.println("✓ First page loaded, extra row only marks more data");
+    }
+
+    @Test
+    @DisplayName("Should stay bounded while scrolling down")
+    void testAppendOlderTrimsTop() {
+        int dropped = 0;
+        while (window.hasOlder()) {
+            dropped += window.appendOlder(older(window.last(), window.fetchSize()));
+            assertTrue(rows.size() <= MAX);
+        }
+
+        assertEquals(TOTAL - MAX, dropped);
+        assertEquals(TOTAL - MAX, window.offset());
+        assertEquals(1, window.last());
+        assertEquals(MAX + 1, window.above());
+        assertTrue(window.hasNewer());
+        System.out.println("✓ Window kept " + rows.size() + " of " + TOTAL + " rows");
+    }
+
+    @Test
+    @DisplayName("Should scroll back to the top after trimming")
+    void testPrependNewer() {
+        while (window.hasOlder()) {
+            window.appendOlder(older(window.last(), window.fetchSize()));
+        }
+        while (window.hasNewer()) {
+            int offset = window.offset();
+            int added = window.prependNewer(newer(window.first(), window.fetchSize()));
+            assertEquals(offset - added, window.offset());
+            assertEquals(TOTAL - window.offset(), window.first());
+            assertTrue(rows.size() <= MAX);
+        }
+
+        assertEquals(TOTAL, window.first());
+        assertEquals(0, window.offset());
+        assertTrue(window.hasOlder());
+        System.out.println("✓ Back at the first row with offset 0");
+    }
+
+    @Test
+    @DisplayName("Should reload the visible rows in place")
+    void testReload() {
+        window.appendOlder(older(window.last(), window.fetchSize()));
+        window.appendOlder(older(window.last(), window.fetchSize()));
+        window.appendOlder(older(window.last(), window.fetchSize()));
+        List<Integer> before = new ArrayList<>(rows);
+
+        window.reload(older(window.above(), window.reloadSize()));
+
+        assertEquals(before, rows);
+        assertEquals(PAGE, window.offset());
+        assertTrue(window.hasOlder());
+        System.out.println("✓ Reload kept the window position");
+    }
+
+    // Simulasi query keyset atas angka TOTAL..1 (urut turun)
+    private static List<Integer> older(Integer anchor, int limit) {
+        List<Integer> page = new ArrayList<>();
+        for (int n = anchor == null ? TOTAL : anchor - 1; n >= 1 && page.size() < limit; n--) {
+            page.add(n);
+        }
+        return page;
+    }
+
+    private static List<Integer> newer(Integer anchor, int limit) {
+        List<Integer> page = new ArrayList<>();
+        for (int n = anchor + 1; n <= TOTAL && page.size() < limit; n++) {
+            page.add(n);
+        }
+        return page;
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.opp.service;
+
+import com.example.opp.model.Guest;
+import org.junit.jupiter.api.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test index n-gram untuk pencarian tamu tanpa database
+ */
+class NgramIndexTest {
+
+    private NgramIndex<Guest> index;
+
+    @BeforeEach
+    void setup() {
+        index = newIndex();
+        index.replaceAll(List.of(
+            guest(1L, "Budi Santoso", "3201010101", "081234"),
+            guest(2L, "Siti Aminah", "3201020202", "081555"),
+            guest(3L, "José  Ramírez", "P1234567", null)
+        ));
+    }
+
+    @Test
+    @DisplayName("Should find substrings in any key, in list order")
+    void testSubstring() {
+        assertEquals(List.of(1L), ids(index.search("santo")));
+        assertEquals(List.of(1L, 2L), ids(index.search("3201")));
+        assertEquals(List.of(2L), ids(index.search("555")));
+        assertEquals(List.of(1L, 2L, 3L), ids(index.search("  ")));
+        assertTrue(index.search("santosa").isEmpty());
+        System.out.println("✓ Substring queries answered from the index");
+    }
+
+    @Test
+    @DisplayName("Should ignore case, accents and repeated spaces")
+    void testNormalisation() {
+        assertEquals(List.of(3L), ids(index.search("JOSE RAMIREZ")));
+        assertEquals(List.of(3L), ids(index.search("é")));
+        System.out.println("✓ Keys and queries normalised the same way");
+    }
+
+    @Test
+    @DisplayName("Should apply incremental updates")
+    void testIncremental() {
+        index.put(guest(2L, "Siti Rahma", "3201020202", "081555"));
+        index.put(guest(4L, "Andi Wijaya", "3201040404", "081777"));
+        index.remove(1L);
+
+        assertTrue(index.search("aminah").isEmpty());
+        assertEquals(List.of(2L), ids(index.search("rahma")));
+        assertEquals(List.of(2L, 4L), ids(index.search("3201")));
+        assertEquals(3, index.size());
+
+        index.replaceAll(List.of(guest(4L, "Andi Wijaya", "3201040404", "081777")));
+        assertEquals(List.of(4L), ids(index.search("")));
+        assertTrue(index.search("siti").isEmpty());
+        System.out.println("✓ Put, remove and replaceAll keep postings consistent");
+    }
+
+    @Test
+    @DisplayName("Should match a linear contains scan on random data")
+    void testMatchesScan() {
+        Random random = new Random(7);
+        List<Guest> guests = new ArrayList<>();
+        for (long id = 1; id <= 2000; id++) {
+            guests.add(guest(id, word(random) + " " + word(random), String.valueOf(100000 + random.nextInt(900000)), null));
+        }
+        NgramIndex<Guest> big = newIndex();
+        big.replaceAll(guests);
+
+        for (String query : List.of("a", "ka", "ran", "anti", "12", "4567", "zzz", "ri sa")) {
+            List<Guest> expected = guests.stream()
+                .filter(g -> g.getFullName().toLowerCase(Locale.ROOT).contains(query) || g.getIdNumber().contains(query))
+                .toList();
+            assertEquals(ids(expected), ids(big.search(query)), query);
+        }
+        System.out.println("✓ Index results equal a full scan for 2000 guests");
+    }
+
+    private static NgramIndex<Guest> newIndex() {
+        return new NgramIndex<>(Guest::getId, g -> Arrays.asList(g.getFullName(), g.getIdNumber(), g.getPhone()));
+    }
+
+    private static Guest guest(Long id, String name, String idNumber, String phone) {
+        Guest guest = new Guest(idNumber, name, phone);
+        guest.setId(id);
+        return guest;
+    }
+
+    private static String word(Random random) {
+        String[] syllables = {"ka", "ri", "sa", "nti", "ran", "da", "wi", "jo", "ma", "lu"};
+        StringBuilder word = new StringBuilder();
+        for (int i = 0, n = 2 + random.nextInt(2); i < n; i++) {
+            word.append(syllables[random.nextInt(syllables.length)]);
+        }
+        return word.toString();
+    }
+
+    private static List<Long> ids(List<Guest> guests) {
+        return guests.stream().map(Guest::getId).toList();
+    }
+}
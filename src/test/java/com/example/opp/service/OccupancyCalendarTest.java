@@ -0,0 +1,61 @@
+package com.example.opp.service;
+
+import org.junit.jupiter.api.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test kalender hunian bitset tanpa database
+ */
+class OccupancyCalendarTest {
+
+    private static final LocalDate START = LocalDate.of(2025, 1, 1);
+
+    @Test
+    @DisplayName("Should check ranges across word boundaries")
+    void testIsFreeAcrossWords() {
+        OccupancyCalendar calendar = new OccupancyCalendar(START, OccupancyCalendar.HORIZON_DAYS);
+        calendar.occupy(1L, day(60), day(70));
+
+        assertFalse(calendar.isFree(1L, day(63), day(64)));
+        assertFalse(calendar.isFree(1L, day(69), day(80)));
+        assertTrue(calendar.isFree(1L, day(70), day(128)));
+        assertTrue(calendar.isFree(1L, day(0), day(60)));
+        assertTrue(calendar.isFree(2L, day(0), day(365)));
+        System.out.println("✓ Masked word scan matches half-open ranges");
+    }
+
+    @Test
+    @DisplayName("Should count free rooms per night")
+    void testPerNightCounts() {
+        OccupancyCalendar calendar = new OccupancyCalendar(START, OccupancyCalendar.HORIZON_DAYS);
+        calendar.occupy(1L, day(0), day(3));
+        calendar.occupy(2L, day(2), day(4));
+        calendar.occupy(3L, day(-5), day(1));
+
+        assertArrayEquals(new int[]{1, 2, 1, 2, 3}, calendar.freePerNight(List.of(1L, 2L, 3L), day(0), day(5)));
+        System.out.println("✓ Popcount per night is correct");
+    }
+
+    @Test
+    @DisplayName("Should clip stays outside the horizon")
+    void testClipping() {
+        OccupancyCalendar calendar = new OccupancyCalendar(START, 10);
+        calendar.occupy(1L, day(-3), day(20));
+
+        assertFalse(calendar.covers(day(5), day(11)));
+        assertArrayEquals(new int[]{1, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 1},
+            calendar.freePerNight(List.of(1L), day(-1), day(11)));
+        calendar.setRoom(1L, new int[]{(int) day(8).toEpochDay()}, new int[]{(int) day(9).toEpochDay()}, 1);
+        assertArrayEquals(new int[]{1, 1, 1, 1, 1, 1, 1, 1, 0, 1},
+            calendar.freePerNight(List.of(1L), day(0), day(10)));
+        System.out.println("✓ Stays are clipped to the calendar window");
+    }
+
+    private static LocalDate day(int offset) {
+        return START.plusDays(offset);
+    }
+}
@@ -0,0 +1,148 @@
+package com.example.opp.service;
+
+import com.example.opp.model.Booking;
+import com.example.opp.model.BookingStatus;
+import org.junit.jupiter.api.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Membandingkan ReportAccumulator dengan perhitungan stream lama (empat pipeline BigDecimal).
+ * Hasil waktu dicetak ke console; JMH tidak dipakai di project ini jadi pengukurannya sederhana
+ * dengan warmup lalu rata-rata beberapa iterasi.
+ */
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class ReportAccumulatorBenchmarkTest {
+
+    private static final int BOOKINGS = 200_000;
+    private static final int WARMUP = 5;
+    private static final int ITERATIONS = 10;
+    private static final LocalDate FROM = LocalDate.of(2025, 1, 1);
+    private static final LocalDate TO = LocalDate.of(2025, 12, 31);
+
+    private static List<Booking> bookings;
+
+    @BeforeAll
+    static void setup() {
+        Random random = new Random(42);
+        BookingStatus[] statuses = BookingStatus.values();
+        bookings = new ArrayList<>(BOOKINGS);
+        for (int i = 0; i < BOOKINGS; i++) {
+            Booking booking = new Booking();
+            booking.setRoomId((long) random.nextInt(50));
+            booking.setCheckInDate(FROM.minusDays(20).plusDays(random.nextInt(400)));
+            booking.setCheckOutDate(booking.getCheckInDate().plusDays(1 + random.nextInt(7)));
+            booking.setRoomRate(BigDecimal.valueOf(150_000 + random.nextInt(20) * 50_000L));
+            booking.setStatus(statuses[random.nextInt(statuses.length)]);
+            booking.calculateTotals();
+            bookings.add(booking);
+        }
+    }
+
+    @Test
+    @Order(1)
+    @DisplayName("Should match the stream implementation for totals and averages")
+    void testMatchesStreams() {
+        ReportAccumulator.Summary summary = accumulate();
+        List<Booking> inPeriod = bookings.stream()
+            .filter(b -> !b.getCheckInDate().isAfter(TO) && !b.getCheckOutDate().isBefore(FROM))
+            .toList();
+
+        assertEquals(countBookings(inPeriod), summary.bookings());
+        assertEquals(0, paidRevenue(inPeriod).compareTo(summary.paidRevenue()));
+        assertEquals(averageNights(inPeriod), summary.averageNights(), 1e-9);
+        System.out.println("✓ Accumulator matches stream totals");
+    }
+
+    @Test
+    @Order(2)
+    @DisplayName("Should clip occupied nights to the report window")
+    void testClipsToWindow() {
+        Booking spanning = new Booking();
+        spanning.setRoomId(1L);
+        spanning.setCheckInDate(LocalDate.of(2025, 1, 30));
+        spanning.setCheckOutDate(LocalDate.of(2025, 2, 3));
+        spanning.setTotalNights(4);
+        spanning.setStatus(BookingStatus.CHECKED_OUT);
+
+        ReportAccumulator accumulator = new ReportAccumulator(LocalDate.of(2025, 2, 1), LocalDate.of(2025, 2, 28));
+        accumulator.add(spanning);
+
+        assertEquals(2, accumulator.summary(1).occupiedNights());
+        System.out.println("✓ Stay clipped to 2 nights inside the window");
+    }
+
+    @Test
+    @Order(3)
+    @DisplayName("Benchmark report statistics: stream pipelines vs single-pass accumulator")
+    void benchmark() {
+        for (int i = 0; i < WARMUP; i++) {
+            streams();
+            accumulate();
+        }
+
+        long streamNanos = 0;
+        long accumulatorNanos = 0;
+        for (int i = 0; i < ITERATIONS; i++) {
+            long start = System.nanoTime();
+            streams();
+            streamNanos += System.nanoTime() - start;
+
+            start = System.nanoTime();
+            accumulate();
+            accumulatorNanos += System.nanoTime() - start;
+        }
+
+        System.out.printf("✓ %,d bookings: streams %.2f ms, accumulator %.2f ms%n",
+            BOOKINGS, streamNanos / 1e6 / ITERATIONS, accumulatorNanos / 1e6 / ITERATIONS);
+    }
+
+    private static ReportAccumulator.Summary accumulate() {
+        ReportAccumulator accumulator = new ReportAccumulator(FROM, TO);
+        for (Booking booking : bookings) {
+            accumulator.add(booking);
+        }
+        return accumulator.summary(50);
+    }
+
+    // Implementasi lama ReportsController.calculateStats
+    private static Object[] streams() {
+        List<Booking> inPeriod = bookings.stream()
+            .filter(b -> !b.getCheckInDate().isAfter(TO) && !b.getCheckOutDate().isBefore(FROM))
+            .toList();
+        long occupiedDays = inPeriod.stream()
+            .filter(b -> b.getStatus() == BookingStatus.CHECKED_IN || b.getStatus() == BookingStatus.CHECKED_OUT)
+            .mapToInt(Booking::getTotalNights)
+            .sum();
+        return new Object[] {countBookings(inPeriod), paidRevenue(inPeriod), averageNights(inPeriod), occupiedDays};
+    }
+
+    private static long countBookings(List<Booking> inPeriod) {
+        return inPeriod.stream()
+            .filter(b -> b.getStatus() != BookingStatus.CANCELLED)
+            .count();
+    }
+
+    private static BigDecimal paidRevenue(List<Booking> inPeriod) {
+        return inPeriod.stream()
+            .filter(b -> b.getStatus() == BookingStatus.CHECKED_IN || b.getStatus() == BookingStatus.CHECKED_OUT)
+            .map(Booking::getTotalAmount)
+            .filter(Objects::nonNull)
+            .reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+
+    private static double averageNights(List<Booking> inPeriod) {
+        return inPeriod.stream()
+            .filter(b -> b.getStatus() != BookingStatus.CANCELLED)
+            .mapToInt(Booking::getTotalNights)
+            .average()
+            .orElse(0);
+    }
+}
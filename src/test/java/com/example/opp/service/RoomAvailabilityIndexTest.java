@@ -0,0 +1,76 @@
+package com.example.opp.service;
+
+import com.example.opp.model.Booking;
+import com.example.opp.model.BookingStatus;
+import org.junit.jupiter.api.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test index ketersediaan kamar tanpa database
+ */
+class RoomAvailabilityIndexTest {
+
+    private static final LocalDate BASE = LocalDate.of(2025, 1, 1);
+
+    private RoomAvailabilityIndex index;
+
+    @BeforeEach
+    void setup() {
+        index = new RoomAvailabilityIndex();
+        index.load(List.of(
+            booking(1L, 10L, 0, 3, BookingStatus.CONFIRMED),
+            booking(2L, 10L, 5, 7, BookingStatus.CHECKED_IN),
+            booking(3L, 11L, 0, 10, BookingStatus.CANCELLED)
+        ));
+    }
+
+    @Test
+    @DisplayName("Should treat stays as half-open ranges")
+    void testHalfOpenOverlap() {
+        assertFalse(index.isAvailable(10L, day(2), day(4)));
+        assertTrue(index.isAvailable(10L, day(3), day(5)));
+        assertFalse(index.isAvailable(10L, day(6), day(9)));
+        assertTrue(index.isAvailable(10L, day(7), day(9)));
+        System.out.println("✓ Check-out day is bookable by the next guest");
+    }
+
+    @Test
+    @DisplayName("Should ignore bookings that no longer block the room")
+    void testIgnoresNonBlocking() {
+        assertTrue(index.isAvailable(11L, day(0), day(10)));
+        assertEquals(List.of(11L, 12L), index.findAvailableRooms(List.of(10L, 11L, 12L), day(1), day(2)));
+        System.out.println("✓ Cancelled bookings are not indexed");
+    }
+
+    @Test
+    @DisplayName("Should follow booking updates and removals")
+    void testPutAndRemove() {
+        index.put(booking(4L, 11L, 1, 2, BookingStatus.PENDING));
+        assertFalse(index.isAvailable(11L, day(0), day(5)));
+
+        index.put(booking(4L, 11L, 1, 2, BookingStatus.CHECKED_OUT));
+        assertTrue(index.isAvailable(11L, day(0), day(5)));
+
+        index.remove(1L);
+        assertTrue(index.isAvailable(10L, day(0), day(5)));
+        System.out.println("✓ Index tracks status changes");
+    }
+
+    private static Booking booking(Long id, Long roomId, int in, int out, BookingStatus status) {
+        Booking booking = new Booking();
+        booking.setId(id);
+        booking.setRoomId(roomId);
+        booking.setCheckInDate(day(in));
+        booking.setCheckOutDate(day(out));
+        booking.setStatus(status);
+        return booking;
+    }
+
+    private static LocalDate day(int offset) {
+        return BASE.plusDays(offset);
+    }
+}
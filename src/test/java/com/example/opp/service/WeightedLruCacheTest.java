@@ -0,0 +1,58 @@
+package com.example.opp.service;
+
+import org.junit.jupiter.api.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test LRU berbobot yang dipakai ImageCache; bobot entri adalah panjang string
+ */
+class WeightedLruCacheTest {
+
+    private WeightedLruCache<String, String> cache;
+
+    @BeforeEach
+    void setup() {
+        cache = new WeightedLruCache<>(10, String::length);
+    }
+
+    @Test
+    @DisplayName("Should evict least recently used entries by total weight")
+    void testEvictsByWeight() {
+        cache.put("a", "aaaa");
+        cache.put("b", "bbbb");
+        cache.get("a");
+        cache.put("c", "cccc");
+
+        assertNotNull(cache.get("a"));
+        assertNull(cache.get("b"));
+        assertNotNull(cache.get("c"));
+        assertEquals(8, cache.weight());
+        assertEquals(1, cache.evictions());
+        System.out.println("✓ Evicted the least recently used entry");
+    }
+
+    @Test
+    @DisplayName("Should track weight when an entry is replaced")
+    void testReplace() {
+        cache.put("a", "aaaa");
+        cache.put("a", "aa");
+
+        assertEquals(1, cache.size());
+        assertEquals(2, cache.weight());
+        assertEquals(0, cache.evictions());
+        System.out.println("✓ Replaced entry weight updated");
+    }
+
+    @Test
+    @DisplayName("Should not store an entry heavier than the limit")
+    void testOversized() {
+        cache.put("a", "aaaa");
+
+        assertFalse(cache.put("big", "x".repeat(11)));
+        assertNull(cache.get("big"));
+        assertNotNull(cache.get("a"));
+        assertEquals(4, cache.weight());
+        System.out.println("✓ Oversized entry skipped without evicting others");
+    }
+}